@@ -27,6 +27,56 @@ public class ShellServerOptionsConverter {
             obj.setReaperInterval(((Number)member.getValue()).longValue());
           }
           break;
+        case "bracketedPaste":
+          if (member.getValue() instanceof Boolean) {
+            obj.setBracketedPaste((Boolean)member.getValue());
+          }
+          break;
+        case "backgroundOutputCapture":
+          if (member.getValue() instanceof Number) {
+            obj.setBackgroundOutputCapture(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "detachBacklog":
+          if (member.getValue() instanceof Number) {
+            obj.setDetachBacklog(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "detachTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setDetachTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxJobsPerSession":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxJobsPerSession(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxSessions":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxSessions(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxSessionsPerUser":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxSessionsPerUser(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "sessionQueueSize":
+          if (member.getValue() instanceof Number) {
+            obj.setSessionQueueSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "outputRateLimit":
+          if (member.getValue() instanceof Number) {
+            obj.setOutputRateLimit(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "outputRatePolicy":
+          if (member.getValue() instanceof String) {
+            obj.setOutputRatePolicy(io.vertx.ext.shell.OutputRatePolicy.valueOf((String)member.getValue()));
+          }
+          break;
       }
     }
   }
@@ -41,5 +91,17 @@ public class ShellServerOptionsConverter {
     }
     json.put("sessionTimeout", obj.getSessionTimeout());
     json.put("reaperInterval", obj.getReaperInterval());
+    json.put("outputRateLimit", obj.getOutputRateLimit());
+    json.put("bracketedPaste", obj.isBracketedPaste());
+    json.put("backgroundOutputCapture", obj.getBackgroundOutputCapture());
+    json.put("detachBacklog", obj.getDetachBacklog());
+    json.put("detachTimeout", obj.getDetachTimeout());
+    json.put("maxSessions", obj.getMaxSessions());
+    json.put("maxSessionsPerUser", obj.getMaxSessionsPerUser());
+    json.put("sessionQueueSize", obj.getSessionQueueSize());
+    json.put("maxJobsPerSession", obj.getMaxJobsPerSession());
+    if (obj.getOutputRatePolicy() != null) {
+      json.put("outputRatePolicy", obj.getOutputRatePolicy().name());
+    }
   }
 }
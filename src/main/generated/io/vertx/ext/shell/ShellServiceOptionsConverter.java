@@ -27,6 +27,16 @@ public class ShellServiceOptionsConverter {
             obj.setHttpOptions(new io.vertx.ext.shell.term.HttpTermOptions((io.vertx.core.json.JsonObject)member.getValue()));
           }
           break;
+        case "instances":
+          if (member.getValue() instanceof Number) {
+            obj.setInstances(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "eventLoopPoolSize":
+          if (member.getValue() instanceof Number) {
+            obj.setEventLoopPoolSize(((Number)member.getValue()).intValue());
+          }
+          break;
       }
     }
   }
@@ -42,5 +52,7 @@ public class ShellServiceOptionsConverter {
     if (obj.getHttpOptions() != null) {
       json.put("httpOptions", obj.getHttpOptions().toJson());
     }
+    json.put("instances", obj.getInstances());
+    json.put("eventLoopPoolSize", obj.getEventLoopPoolSize());
   }
 }
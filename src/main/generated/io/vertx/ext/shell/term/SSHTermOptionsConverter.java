@@ -52,6 +52,11 @@ public class SSHTermOptionsConverter {
             obj.setIntputrc((String)member.getValue());
           }
           break;
+        case "eventLoopGroup":
+          if (member.getValue() instanceof Boolean) {
+            obj.setEventLoopGroup((Boolean)member.getValue());
+          }
+          break;
       }
     }
   }
@@ -74,5 +79,6 @@ public class SSHTermOptionsConverter {
     if (obj.getIntputrc() != null) {
       json.put("intputrc", obj.getIntputrc());
     }
+    json.put("eventLoopGroup", obj.isEventLoopGroup());
   }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The policy applied when a shell session exceeds its output rate budget.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public enum OutputRatePolicy {
+
+  /**
+   * Output is queued and the process sees a full write queue until the budget allows to write again.
+   */
+  BLOCK,
+
+  /**
+   * Output is queued up to one second of budget, the oldest output is discarded when the queue overflows.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Output is discarded and replaced by a single summary line when the budget allows to write again.
+   */
+  SUMMARIZE
+
+}
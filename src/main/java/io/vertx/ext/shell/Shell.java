@@ -83,6 +83,27 @@ public interface Shell {
    */
   void setPrompt(Function<Session, String> prompt);
 
+  /**
+   * @return the number of bytes of job output suppressed by the output rate limit of this shell
+   */
+  long suppressedBytes();
+
+  /**
+   * @return the number of lines of job output suppressed by the output rate limit of this shell
+   */
+  long suppressedLines();
+
+  /**
+   * @return the time, in ms since the epoch, at which this shell expires unless it is accessed, or {@code -1}
+   *         when the shell does not expire
+   */
+  long idleDeadline();
+
+  /**
+   * @return the number of command lines rejected because the maximum number of running jobs of this shell was reached
+   */
+  long rejectedJobs();
+
 
   /**
    * Close the shell.
@@ -123,6 +123,11 @@ public interface ShellServer {
    */
   Future<Void> close();
 
+  /**
+   * @return the number of connections rejected because the session limits were reached
+   */
+  long rejectedSessions();
+
   /**
    * Called when a new shell is created. Can be used to prepopulate the shell session with objects
    * or set the prompt.
@@ -58,6 +58,58 @@ public class ShellServerOptions {
    */
   public static final long DEFAULT_SESSION_TIMEOUT = 30 * 60 * 1000; // 30 minutes
 
+  /**
+   * Default output rate limit, in bytes per second, of a shell session: {@code 0} means unlimited.
+   */
+  public static final long DEFAULT_OUTPUT_RATE_LIMIT = 0;
+
+  /**
+   * Default policy applied when a shell session exceeds its output rate limit.
+   */
+  public static final OutputRatePolicy DEFAULT_OUTPUT_RATE_POLICY = OutputRatePolicy.BLOCK;
+
+  /**
+   * Default bracketed paste mode of the terminals
+   */
+  public static final boolean DEFAULT_BRACKETED_PASTE = false;
+
+  /**
+   * Default capacity, in chars, of the output captured for the background jobs: {@code 0} means no capture.
+   */
+  public static final int DEFAULT_BACKGROUND_OUTPUT_CAPTURE = 0;
+
+  /**
+   * Default time, in ms, a shell session stays detached after its connection is lost: {@code 0} means the session
+   * is closed with its connection.
+   */
+  public static final long DEFAULT_DETACH_TIMEOUT = 0;
+
+  /**
+   * Default capacity, in chars, of the output kept for a detached shell session.
+   */
+  public static final int DEFAULT_DETACH_BACKLOG = 64 * 1024;
+
+  /**
+   * Default maximum number of concurrent sessions of a term server: {@code 0} means no limit.
+   */
+  public static final int DEFAULT_MAX_SESSIONS = 0;
+
+  /**
+   * Default maximum number of concurrent sessions of an authenticated user: {@code 0} means no limit.
+   */
+  public static final int DEFAULT_MAX_SESSIONS_PER_USER = 0;
+
+  /**
+   * Default maximum number of connections of a term server waiting for a session: {@code 0} means connections
+   * over the session limits are rejected.
+   */
+  public static final int DEFAULT_SESSION_QUEUE_SIZE = 0;
+
+  /**
+   * Default maximum number of concurrent running jobs of a session: {@code 0} means no limit.
+   */
+  public static final int DEFAULT_MAX_JOBS_PER_SESSION = 0;
+
   public static final String DEFAULT_WELCOME_MESSAGE;
 
   static {
@@ -85,17 +137,47 @@ public class ShellServerOptions {
   private String welcomeMessage;
   private long sessionTimeout;
   private long reaperInterval;
+  private long outputRateLimit;
+  private OutputRatePolicy outputRatePolicy;
+  private boolean bracketedPaste;
+  private int backgroundOutputCapture;
+  private long detachTimeout;
+  private int detachBacklog;
+  private int maxSessions;
+  private int maxSessionsPerUser;
+  private int sessionQueueSize;
+  private int maxJobsPerSession;
 
   public ShellServerOptions() {
     welcomeMessage = DEFAULT_WELCOME_MESSAGE;
     sessionTimeout = DEFAULT_SESSION_TIMEOUT;
     reaperInterval = DEFAULT_REAPER_INTERVAL;
+    outputRateLimit = DEFAULT_OUTPUT_RATE_LIMIT;
+    outputRatePolicy = DEFAULT_OUTPUT_RATE_POLICY;
+    bracketedPaste = DEFAULT_BRACKETED_PASTE;
+    backgroundOutputCapture = DEFAULT_BACKGROUND_OUTPUT_CAPTURE;
+    detachTimeout = DEFAULT_DETACH_TIMEOUT;
+    detachBacklog = DEFAULT_DETACH_BACKLOG;
+    maxSessions = DEFAULT_MAX_SESSIONS;
+    maxSessionsPerUser = DEFAULT_MAX_SESSIONS_PER_USER;
+    sessionQueueSize = DEFAULT_SESSION_QUEUE_SIZE;
+    maxJobsPerSession = DEFAULT_MAX_JOBS_PER_SESSION;
   }
 
   public ShellServerOptions(ShellServerOptions that) {
     welcomeMessage = that.welcomeMessage;
     sessionTimeout = that.sessionTimeout;
     reaperInterval = that.reaperInterval;
+    outputRateLimit = that.outputRateLimit;
+    outputRatePolicy = that.outputRatePolicy;
+    bracketedPaste = that.bracketedPaste;
+    backgroundOutputCapture = that.backgroundOutputCapture;
+    detachTimeout = that.detachTimeout;
+    detachBacklog = that.detachBacklog;
+    maxSessions = that.maxSessions;
+    maxSessionsPerUser = that.maxSessionsPerUser;
+    sessionQueueSize = that.sessionQueueSize;
+    maxJobsPerSession = that.maxJobsPerSession;
   }
 
   public ShellServerOptions(JsonObject json) {
@@ -156,4 +238,195 @@ public class ShellServerOptions {
     this.reaperInterval = reaperInterval;
     return this;
   }
+
+  /**
+   * @return the output rate limit in bytes per second
+   */
+  public long getOutputRateLimit() {
+    return outputRateLimit;
+  }
+
+  /**
+   * Set the maximum number of bytes per second a shell session sends to its terminal on behalf of its jobs,
+   * {@code 0} disables the limit.
+   *
+   * @param outputRateLimit the new output rate limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setOutputRateLimit(long outputRateLimit) {
+    this.outputRateLimit = outputRateLimit;
+    return this;
+  }
+
+  /**
+   * @return the output rate policy
+   */
+  public OutputRatePolicy getOutputRatePolicy() {
+    return outputRatePolicy;
+  }
+
+  /**
+   * Set the policy applied when a shell session exceeds its output rate limit.
+   *
+   * @param outputRatePolicy the new output rate policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setOutputRatePolicy(OutputRatePolicy outputRatePolicy) {
+    this.outputRatePolicy = outputRatePolicy;
+    return this;
+  }
+
+  /**
+   * @return whether the terminals are switched to bracketed paste mode
+   */
+  public boolean isBracketedPaste() {
+    return bracketedPaste;
+  }
+
+  /**
+   * Set whether the terminals are switched to bracketed paste mode, a pasted text is then delivered as
+   * a single input event instead of one event per character.
+   *
+   * @param bracketedPaste true to enable bracketed paste
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setBracketedPaste(boolean bracketedPaste) {
+    this.bracketedPaste = bracketedPaste;
+    return this;
+  }
+
+  /**
+   * @return the capacity in chars of the output captured for the background jobs
+   */
+  public int getBackgroundOutputCapture() {
+    return backgroundOutputCapture;
+  }
+
+  /**
+   * Set the capacity in chars of the output captured for each background job: a job running in background writes
+   * its output in a buffer instead of the terminal, the buffer keeps the tail of the output and is written to
+   * the terminal when the job is brought back to foreground. {@code 0} disables the capture.
+   *
+   * @param backgroundOutputCapture the capacity
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setBackgroundOutputCapture(int backgroundOutputCapture) {
+    this.backgroundOutputCapture = backgroundOutputCapture;
+    return this;
+  }
+
+  /**
+   * @return the time in ms a shell session stays detached after its connection is lost
+   */
+  public long getDetachTimeout() {
+    return detachTimeout;
+  }
+
+  /**
+   * Set the time in ms a shell session stays detached after its connection is lost: the jobs of a detached session
+   * keep running and a new connection can reattach the session with the {@code attach} command. {@code 0} closes
+   * the session with its connection.
+   *
+   * @param detachTimeout the detach timeout
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setDetachTimeout(long detachTimeout) {
+    this.detachTimeout = detachTimeout;
+    return this;
+  }
+
+  /**
+   * @return the capacity in chars of the output kept for a detached shell session
+   */
+  public int getDetachBacklog() {
+    return detachBacklog;
+  }
+
+  /**
+   * Set the capacity in chars of the output kept for a detached shell session, the tail of the output written by
+   * the jobs while the session is detached is written to the terminal reattaching the session.
+   *
+   * @param detachBacklog the capacity
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setDetachBacklog(int detachBacklog) {
+    this.detachBacklog = detachBacklog;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of concurrent sessions of a term server
+   */
+  public int getMaxSessions() {
+    return maxSessions;
+  }
+
+  /**
+   * Set the maximum number of concurrent sessions of each term server, a connection over the limit waits in the
+   * session queue or is rejected. {@code 0} means no limit.
+   *
+   * @param maxSessions the maximum number of sessions
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setMaxSessions(int maxSessions) {
+    this.maxSessions = maxSessions;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of concurrent sessions of an authenticated user
+   */
+  public int getMaxSessionsPerUser() {
+    return maxSessionsPerUser;
+  }
+
+  /**
+   * Set the maximum number of concurrent sessions of an authenticated user across the term servers, a connection
+   * over the limit waits in the session queue or is rejected. {@code 0} means no limit.
+   *
+   * @param maxSessionsPerUser the maximum number of sessions
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setMaxSessionsPerUser(int maxSessionsPerUser) {
+    this.maxSessionsPerUser = maxSessionsPerUser;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of connections of a term server waiting for a session
+   */
+  public int getSessionQueueSize() {
+    return sessionQueueSize;
+  }
+
+  /**
+   * Set the maximum number of connections of each term server waiting for a session when the session limits are
+   * reached, a connection is rejected when the queue is full. {@code 0} rejects the connections immediately.
+   *
+   * @param sessionQueueSize the queue size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setSessionQueueSize(int sessionQueueSize) {
+    this.sessionQueueSize = sessionQueueSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of concurrent running jobs of a session
+   */
+  public int getMaxJobsPerSession() {
+    return maxJobsPerSession;
+  }
+
+  /**
+   * Set the maximum number of concurrent running jobs of a session, a command line over the limit is rejected.
+   * {@code 0} means no limit.
+   *
+   * @param maxJobsPerSession the maximum number of running jobs
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServerOptions setMaxJobsPerSession(int maxJobsPerSession) {
+    this.maxJobsPerSession = maxJobsPerSession;
+    return this;
+  }
 }
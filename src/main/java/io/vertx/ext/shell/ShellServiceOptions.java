@@ -49,11 +49,25 @@ import io.vertx.ext.shell.term.HttpTermOptions;
 @JsonGen(publicConverter = false)
 public class ShellServiceOptions extends ShellServerOptions {
 
+  /**
+   * Default number of shell server instances = 1
+   */
+  public static final int DEFAULT_INSTANCES = 1;
+
+  /**
+   * Default size of the dedicated event loop pool = 0, the shell runs on the Vert.x event loops
+   */
+  public static final int DEFAULT_EVENT_LOOP_POOL_SIZE = 0;
+
   private TelnetTermOptions telnetOptions;
   private SSHTermOptions sshOptions;
   private HttpTermOptions httpOptions;
+  private int instances;
+  private int eventLoopPoolSize;
 
   public ShellServiceOptions() {
+    instances = DEFAULT_INSTANCES;
+    eventLoopPoolSize = DEFAULT_EVENT_LOOP_POOL_SIZE;
   }
 
   public ShellServiceOptions(ShellServiceOptions that) {
@@ -61,10 +75,14 @@ public class ShellServiceOptions extends ShellServerOptions {
     this.telnetOptions = that.telnetOptions != null ? new TelnetTermOptions(that.telnetOptions) : null;
     this.sshOptions = that.sshOptions != null ? new SSHTermOptions(that.sshOptions) : null;
     this.httpOptions = that.httpOptions != null ? new HttpTermOptions(that.httpOptions) : null;
+    this.instances = that.instances;
+    this.eventLoopPoolSize = that.eventLoopPoolSize;
   }
 
   public ShellServiceOptions(JsonObject json) {
     super(json);
+    instances = DEFAULT_INSTANCES;
+    eventLoopPoolSize = DEFAULT_EVENT_LOOP_POOL_SIZE;
     ShellServiceOptionsConverter.fromJson(json, this);
   }
 
@@ -83,6 +101,56 @@ public class ShellServiceOptions extends ShellServerOptions {
     return (ShellServiceOptions) super.setReaperInterval(reaperInterval);
   }
 
+  @Override
+  public ShellServiceOptions setOutputRateLimit(long outputRateLimit) {
+    return (ShellServiceOptions) super.setOutputRateLimit(outputRateLimit);
+  }
+
+  @Override
+  public ShellServiceOptions setOutputRatePolicy(OutputRatePolicy outputRatePolicy) {
+    return (ShellServiceOptions) super.setOutputRatePolicy(outputRatePolicy);
+  }
+
+  @Override
+  public ShellServiceOptions setBracketedPaste(boolean bracketedPaste) {
+    return (ShellServiceOptions) super.setBracketedPaste(bracketedPaste);
+  }
+
+  @Override
+  public ShellServiceOptions setBackgroundOutputCapture(int backgroundOutputCapture) {
+    return (ShellServiceOptions) super.setBackgroundOutputCapture(backgroundOutputCapture);
+  }
+
+  @Override
+  public ShellServiceOptions setDetachTimeout(long detachTimeout) {
+    return (ShellServiceOptions) super.setDetachTimeout(detachTimeout);
+  }
+
+  @Override
+  public ShellServiceOptions setDetachBacklog(int detachBacklog) {
+    return (ShellServiceOptions) super.setDetachBacklog(detachBacklog);
+  }
+
+  @Override
+  public ShellServiceOptions setMaxSessions(int maxSessions) {
+    return (ShellServiceOptions) super.setMaxSessions(maxSessions);
+  }
+
+  @Override
+  public ShellServiceOptions setMaxSessionsPerUser(int maxSessionsPerUser) {
+    return (ShellServiceOptions) super.setMaxSessionsPerUser(maxSessionsPerUser);
+  }
+
+  @Override
+  public ShellServiceOptions setSessionQueueSize(int sessionQueueSize) {
+    return (ShellServiceOptions) super.setSessionQueueSize(sessionQueueSize);
+  }
+
+  @Override
+  public ShellServiceOptions setMaxJobsPerSession(int maxJobsPerSession) {
+    return (ShellServiceOptions) super.setMaxJobsPerSession(maxJobsPerSession);
+  }
+
   /**
    * @return the Telnet options
    */
@@ -127,4 +195,46 @@ public class ShellServiceOptions extends ShellServerOptions {
     this.httpOptions = httpOptions;
     return this;
   }
+
+  /**
+   * @return the number of shell server instances
+   */
+  public int getInstances() {
+    return instances;
+  }
+
+  /**
+   * Set the number of shell server instances, each instance runs on its own event loop. The Telnet and HTTP
+   * term servers of the instances share their port, so a session runs on the event loop of the instance that
+   * accepted its connection. The instances belong to the same shell server: the sessions, the session limits and
+   * the detached sessions are shared. The SSH term server is bound by the first instance only, see
+   * {@link SSHTermOptions#setEventLoopGroup(boolean)} to spread its sessions.
+   *
+   * @param instances the number of instances
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServiceOptions setInstances(int instances) {
+    this.instances = instances;
+    return this;
+  }
+
+  /**
+   * @return the size of the dedicated event loop pool
+   */
+  public int getEventLoopPoolSize() {
+    return eventLoopPoolSize;
+  }
+
+  /**
+   * Set the size of the event loop pool dedicated to the shell. When greater than zero the term servers, the
+   * sessions and the built-in commands run on their own event loops, so the shell stays responsive when the
+   * application event loops are saturated. Commands registered by the application still run on their own context.
+   *
+   * @param eventLoopPoolSize the pool size, {@code 0} runs the shell on the Vert.x event loops
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ShellServiceOptions setEventLoopPoolSize(int eventLoopPoolSize) {
+    this.eventLoopPoolSize = eventLoopPoolSize;
+    return this;
+  }
 }
@@ -35,17 +35,24 @@ package io.vertx.ext.shell.cli.impl;
 import io.termd.core.readline.LineStatus;
 import io.vertx.ext.shell.cli.CliToken;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * A token of a command line, the tokens created by {@link #tokenize(String)} are views over the tokenized line and
+ * materialize their raw and value strings on demand.
+ *
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 public class CliTokenImpl implements CliToken {
 
   final boolean text;
-  final String raw;
-  final String value;
+  final String line;
+  final int from;
+  final int to;
+  final boolean plain;
+  private String raw;
+  private String value;
 
   public CliTokenImpl(boolean text, String value) {
     this(text, value, value);
@@ -53,10 +60,22 @@ public class CliTokenImpl implements CliToken {
 
   public CliTokenImpl(boolean text, String raw, String value) {
     this.text = text;
+    this.line = raw;
+    this.from = 0;
+    this.to = raw.length();
+    this.plain = true;
     this.raw = raw;
     this.value = value;
   }
 
+  private CliTokenImpl(boolean text, String line, int from, int to, boolean plain) {
+    this.text = text;
+    this.line = line;
+    this.from = from;
+    this.to = to;
+    this.plain = plain;
+  }
+
   @Override
   public boolean isText() {
     return text;
@@ -68,16 +87,22 @@ public class CliTokenImpl implements CliToken {
   }
 
   public String raw() {
+    if (raw == null) {
+      raw = from == 0 && to == line.length() ? line : line.substring(from, to);
+    }
     return raw;
   }
 
   public String value() {
+    if (value == null) {
+      value = plain ? raw() : unescape(line, from, to);
+    }
     return value;
   }
 
   @Override
   public int hashCode() {
-    return value.hashCode();
+    return value().hashCode();
   }
 
   @Override
@@ -86,27 +111,61 @@ public class CliTokenImpl implements CliToken {
       return true;
     } else if (obj instanceof CliTokenImpl) {
       CliTokenImpl that = (CliTokenImpl) obj;
-      return text == that.text && value.equals(that.value);
+      return text == that.text && value().equals(that.value());
     }
     return false;
   }
 
   @Override
   public String toString() {
-    return "CliToken[text=" + text + ",value=" + value + "]";
+    return "CliToken[text=" + text + ",value=" + value() + "]";
   }
 
-  public static List<CliToken> tokenize(String s) {
-
-    List<CliToken> tokens = new LinkedList<>();
+  /**
+   * Join the raw values of the tokens, the line is not copied when the tokens are adjacent views of the same line.
+   *
+   * @param tokens the tokens
+   * @return the raw line
+   */
+  public static String rawLine(List<CliToken> tokens) {
+    int size = tokens.size();
+    if (size == 0) {
+      return "";
+    }
+    if (tokens.get(0) instanceof CliTokenImpl) {
+      CliTokenImpl first = (CliTokenImpl) tokens.get(0);
+      int to = first.from;
+      int index = 0;
+      while (index < size) {
+        CliToken token = tokens.get(index);
+        if (!(token instanceof CliTokenImpl)) {
+          break;
+        }
+        CliTokenImpl impl = (CliTokenImpl) token;
+        if (impl.line != first.line || impl.from != to) {
+          break;
+        }
+        to = impl.to;
+        index++;
+      }
+      if (index == size) {
+        return first.from == 0 && to == first.line.length() ? first.line : first.line.substring(first.from, to);
+      }
+    }
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0;i < size;i++) {
+      sb.append(tokens.get(i).raw());
+    }
+    return sb.toString();
+  }
 
+  public static List<CliToken> tokenize(String s) {
+    List<CliToken> tokens = new ArrayList<>();
     tokenize(s, 0, tokens);
-
     return tokens;
-
   }
 
-  private static void tokenize(String s, int index, List<CliToken> builder) {
+  static void tokenize(String s, int index, List<CliToken> builder) {
     while (index < s.length()) {
       char c = s.charAt(index);
       switch (c) {
@@ -121,27 +180,41 @@ public class CliTokenImpl implements CliToken {
     }
   }
 
-  // Todo use code points and not chars
   private static int textToken(String s, int index, List<CliToken> builder) {
     LineStatus quoter = new LineStatus();
     int from = index;
-    StringBuilder value = new StringBuilder();
+    boolean plain = true;
     while (index < s.length()) {
-      char c = s.charAt(index);
-      quoter.accept(c);
-      if (!quoter.isQuoted() && !quoter.isEscaped() && isBlank(c)) {
+      int cp = s.codePointAt(index);
+      quoter.accept(cp);
+      if (!quoter.isQuoted() && !quoter.isEscaped() && isBlank(cp)) {
         break;
       }
+      if (cp == '\\' || cp == '"' || cp == '\'') {
+        plain = false;
+      }
+      index += Character.charCount(cp);
+    }
+    builder.add(new CliTokenImpl(true, s, from, index, plain));
+    return index;
+  }
+
+  private static String unescape(String s, int from, int to) {
+    LineStatus quoter = new LineStatus();
+    StringBuilder value = new StringBuilder(to - from);
+    int index = from;
+    while (index < to) {
+      int cp = s.codePointAt(index);
+      quoter.accept(cp);
       if (quoter.isCodePoint()) {
-        if (quoter.isEscaped() && quoter.isWeaklyQuoted() && c != '"') {
+        if (quoter.isEscaped() && quoter.isWeaklyQuoted() && cp != '"') {
           value.append('\\');
         }
-        value.append(c);
+        value.appendCodePoint(cp);
       }
-      index++;
+      index += Character.charCount(cp);
     }
-    builder.add(new CliTokenImpl(true, s.substring(from, index), value.toString()));
-    return index;
+    return value.toString();
   }
 
   private static int blankToken(String s, int index, List<CliToken> builder) {
@@ -149,11 +222,11 @@ public class CliTokenImpl implements CliToken {
     while (index < s.length() && isBlank(s.charAt(index))) {
       index++;
     }
-    builder.add(new CliTokenImpl(false, s.substring(from, index)));
+    builder.add(new CliTokenImpl(false, s, from, index, true));
     return index;
   }
 
-  private static boolean isBlank(char c) {
+  private static boolean isBlank(int c) {
     return c == ' ' || c == '\t';
   }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.cli.impl;
+
+import io.vertx.ext.shell.cli.CliToken;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tokenize the successive states of a line being edited, the tokens before the first change are reused and only
+ * the remaining part of the line is tokenized again.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class LineTokenizer {
+
+  private int[] codePoints;
+  private String line = "";
+  private List<CliToken> tokens = Collections.emptyList();
+
+  /**
+   * @return the last tokenized line
+   */
+  public String line() {
+    return line;
+  }
+
+  /**
+   * @return the tokens of the last tokenized line
+   */
+  public List<CliToken> tokens() {
+    return tokens;
+  }
+
+  /**
+   * Tokenize a new state of the line.
+   *
+   * @param codePoints the line code points
+   * @return the unmodifiable tokens of the line
+   */
+  public List<CliToken> tokenize(int[] codePoints) {
+    if (Arrays.equals(this.codePoints, codePoints)) {
+      return tokens;
+    }
+    return tokenize(new String(codePoints, 0, codePoints.length), codePoints.clone());
+  }
+
+  /**
+   * Tokenize a new state of the line.
+   *
+   * @param s the line
+   * @return the unmodifiable tokens of the line
+   */
+  public List<CliToken> tokenize(String s) {
+    if (s.equals(line)) {
+      return tokens;
+    }
+    return tokenize(s, null);
+  }
+
+  private List<CliToken> tokenize(String s, int[] cps) {
+    // Length of the unchanged part
+    int max = Math.min(line.length(), s.length());
+    int same = 0;
+    while (same < max && line.charAt(same) == s.charAt(same)) {
+      same++;
+    }
+    // A token ending before the first changed char keeps its boundaries
+    List<CliToken> result = new ArrayList<>(tokens.size() + 1);
+    int from = 0;
+    for (CliToken token : tokens) {
+      CliTokenImpl impl = (CliTokenImpl) token;
+      if (impl.to >= same) {
+        break;
+      }
+      result.add(impl);
+      from = impl.to;
+    }
+    CliTokenImpl.tokenize(s, from, result);
+    line = s;
+    codePoints = cps;
+    tokens = Collections.unmodifiableList(result);
+    return tokens;
+  }
+}
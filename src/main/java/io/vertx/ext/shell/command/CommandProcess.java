@@ -32,12 +32,15 @@
 
 package io.vertx.ext.shell.command;
 
+import io.vertx.codegen.annotations.CacheReturn;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.cli.CommandLine;
 import io.vertx.ext.shell.session.Session;
+import io.vertx.ext.shell.term.Screen;
 import io.vertx.ext.shell.term.Tty;
 import io.vertx.ext.shell.cli.CliToken;
 
@@ -76,6 +79,12 @@ public interface CommandProcess extends Tty {
    */
   Session session();
 
+  /**
+   * @return the full screen canvas of this process, its frames are sent when the process runs in foreground
+   */
+  @CacheReturn
+  Screen screen();
+
   /**
    * @return true if the command is running in foreground
    */
@@ -125,7 +134,10 @@ public interface CommandProcess extends Tty {
   CommandProcess endHandler(Handler<Void> handler);
 
   /**
-   * Write some text to the standard output.
+   * Write some text to the standard output.<p/>
+   *
+   * The text is buffered and written to the terminal at the end of the current event loop turn, consecutive writes
+   * are coalesced in a single terminal write.
    *
    * @param data the text
    * @return a reference to this, so the API can be used fluently
@@ -133,6 +145,37 @@ public interface CommandProcess extends Tty {
   @Fluent
   CommandProcess write(String data);
 
+  /**
+   * Write UTF-8 encoded bytes to the standard output, like {@link #write(String)} the bytes are buffered and written
+   * to the terminal in order with the text.
+   *
+   * @param data the bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CommandProcess write(Buffer data);
+
+  /**
+   * Flush the text buffered by {@link #write(String)} to the terminal.
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CommandProcess flush();
+
+  /**
+   * Set a drain handler, the handler is called when the terminal write queue is ready to accept data again after
+   * {@link #writeQueueFull()} returned {@code true}, this allows a streaming command to pause its source until the
+   * client catches up.<p/>
+   *
+   * The handler is only called when the command is running in foreground.
+   *
+   * @param handler the drain handler
+   * @return this command
+   */
+  @Override
+  CommandProcess drainHandler(Handler<Void> handler);
+
   /**
    * Set a background handler, this handler is called when the command is running and put to background.
    *
@@ -67,4 +67,14 @@ public interface CommandResolver {
   default Command getCommand(String name) {
     return commands().stream().filter(cmd -> cmd.name().equals(name)).findFirst().orElse(null);
   }
+
+  /**
+   * Returns a number that changes each time the commands of this resolver change, so the shell can cache them. A
+   * resolver that does not track its changes returns {@code -1} and its commands are compared on each lookup.
+   *
+   * @return the version of the commands or {@code -1}
+   */
+  default long version() {
+    return -1;
+  }
 }
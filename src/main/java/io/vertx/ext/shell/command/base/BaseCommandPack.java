@@ -37,9 +37,13 @@ import io.vertx.core.Vertx;
 import io.vertx.ext.shell.command.AnnotatedCommand;
 import io.vertx.ext.shell.command.Command;
 import io.vertx.ext.shell.command.CommandResolver;
+import io.vertx.ext.shell.command.impl.AnnotatedCommandImpl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -74,6 +78,8 @@ public class BaseCommandPack implements CommandResolver {
   }
 
   final Vertx vertx;
+  private volatile List<Command> commands;
+  private volatile Map<String, Command> commandMap;
 
   public BaseCommandPack(Vertx vertx) {
     this.vertx = vertx;
@@ -81,9 +87,37 @@ public class BaseCommandPack implements CommandResolver {
 
   @Override
   public List<Command> commands() {
-    return baseCommandClasses().
-        stream().
-        map(clazz -> Command.create(vertx, clazz)).
-        collect(Collectors.toList());
+    if (commands == null) {
+      init();
+    }
+    return commands;
+  }
+
+  @Override
+  public Command getCommand(String name) {
+    if (commandMap == null) {
+      init();
+    }
+    return commandMap.get(name);
+  }
+
+  @Override
+  public long version() {
+    // The base commands never change
+    return 0;
+  }
+
+  // The commands are shared by the sessions, their processes run on the context of the session creating them
+  private synchronized void init() {
+    if (commands == null) {
+      List<Command> list = baseCommandClasses().
+          stream().
+          map(clazz -> (Command) new AnnotatedCommandImpl(vertx, null, clazz)).
+          collect(Collectors.toList());
+      Map<String, Command> map = new HashMap<>();
+      list.forEach(command -> map.put(command.name(), command));
+      commandMap = map;
+      commands = Collections.unmodifiableList(list);
+    }
   }
 }
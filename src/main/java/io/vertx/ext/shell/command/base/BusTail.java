@@ -33,7 +33,6 @@
 package io.vertx.ext.shell.command.base;
 
 import io.netty.util.internal.StringUtil;
-import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.cli.annotations.Argument;
@@ -42,13 +41,12 @@ import io.vertx.core.cli.annotations.Name;
 import io.vertx.core.cli.annotations.Option;
 import io.vertx.core.cli.annotations.Summary;
 import io.vertx.core.eventbus.EventBus;
-import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.ext.shell.command.AnnotatedCommand;
 import io.vertx.ext.shell.command.CommandProcess;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -82,8 +80,10 @@ public class BusTail extends AnnotatedCommand {
   @Override
   public void process(CommandProcess process) {
     EventBus eb = process.vertx().eventBus();
-    List<MessageConsumer<Object>> consumers = addresses.stream().map(address -> {
-      Handler<Message<Object>> handler = msg -> {
+    List<MessageConsumer<Object>> consumers = new ArrayList<>();
+    for (String address : addresses) {
+      MessageConsumer<Object> consumer = local ? eb.localConsumer(address) : eb.consumer(address);
+      consumer.handler(msg -> {
         Object body = msg.body();
         String bodyString;
         if (body instanceof Buffer) {
@@ -102,9 +102,14 @@ public class BusTail extends AnnotatedCommand {
         } else {
           process.write(address + ":" + bodyString + "\n");
         }
-      };
-      return local ? eb.localConsumer(address, handler) : eb.consumer(address, handler);
-    }).collect(Collectors.toList());
+        if (process.writeQueueFull()) {
+          // Stop consuming until the client catches up
+          consumers.forEach(MessageConsumer::pause);
+        }
+      });
+      consumers.add(consumer);
+    }
+    process.drainHandler(v -> consumers.forEach(MessageConsumer::resume));
     process.interruptHandler(done -> process.end());
     process.endHandler(done -> consumers.forEach(MessageConsumer::unregister));
   }
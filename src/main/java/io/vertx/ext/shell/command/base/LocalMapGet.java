@@ -41,6 +41,7 @@ import io.vertx.core.shareddata.LocalMap;
 import io.vertx.core.shareddata.SharedData;
 import io.vertx.ext.shell.command.AnnotatedCommand;
 import io.vertx.ext.shell.command.CommandProcess;
+import io.vertx.ext.shell.command.Pure;
 
 import java.util.List;
 
@@ -49,6 +50,7 @@ import java.util.List;
  */
 @Name("local-map-get")
 @Summary("Get values from a local map")
+@Pure
 public class LocalMapGet extends AnnotatedCommand {
 
   private String map;
@@ -38,12 +38,14 @@ import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.internal.deployment.DeploymentContext;
 import io.vertx.ext.shell.command.AnnotatedCommand;
 import io.vertx.ext.shell.command.CommandProcess;
+import io.vertx.ext.shell.command.Pure;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 @Name("verticle-ls")
 @Summary("List all verticles")
+@Pure
 public class VerticleLs extends AnnotatedCommand {
 
   @Override
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.command.impl;
+
+import io.vertx.core.cli.CLIException;
+import io.vertx.core.cli.CommandLine;
+import io.vertx.core.cli.annotations.Argument;
+import io.vertx.core.cli.annotations.CLIConfigurator;
+import io.vertx.core.cli.annotations.Option;
+import io.vertx.ext.shell.command.AnnotatedCommand;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates and configures instances of an {@link AnnotatedCommand} class with method handles resolved once per class,
+ * the reflective path is used when the class members are not accessible.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class AnnotatedCommandBinding {
+
+  private static final MethodType FACTORY_TYPE = MethodType.methodType(AnnotatedCommand.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, AnnotatedCommand.class, Object.class);
+
+  private static final ClassValue<AnnotatedCommandBinding> bindings = new ClassValue<AnnotatedCommandBinding>() {
+    @Override
+    protected AnnotatedCommandBinding computeValue(Class<?> type) {
+      return new AnnotatedCommandBinding(type.asSubclass(AnnotatedCommand.class));
+    }
+  };
+
+  /**
+   * @return the binding of the {@code clazz} command
+   */
+  public static AnnotatedCommandBinding get(Class<? extends AnnotatedCommand> clazz) {
+    return bindings.get(clazz);
+  }
+
+  private final Class<? extends AnnotatedCommand> clazz;
+  private final MethodHandle factory;
+  private final Injector[] injectors;
+
+  private AnnotatedCommandBinding(Class<? extends AnnotatedCommand> clazz) {
+    this.clazz = clazz;
+    this.factory = resolveFactory(clazz);
+    this.injectors = resolveInjectors(clazz);
+  }
+
+  /**
+   * @return whether the binding uses method handles, otherwise it falls back to reflection
+   */
+  public boolean isDirect() {
+    return factory != null && injectors != null;
+  }
+
+  /**
+   * @return a new instance of the command
+   */
+  public AnnotatedCommand newInstance() throws Exception {
+    if (factory != null) {
+      try {
+        return (AnnotatedCommand) factory.invokeExact();
+      } catch (Exception | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new Exception(t);
+      }
+    }
+    return clazz.getDeclaredConstructor().newInstance();
+  }
+
+  /**
+   * Inject the options and arguments values of the {@code commandLine} in the {@code instance}.
+   *
+   * @param commandLine the command line
+   * @param instance the command instance
+   */
+  public void inject(CommandLine commandLine, AnnotatedCommand instance) throws CLIException {
+    if (injectors == null) {
+      CLIConfigurator.inject(commandLine, instance);
+      return;
+    }
+    for (Injector injector : injectors) {
+      injector.inject(commandLine, instance);
+    }
+  }
+
+  private static MethodHandle resolveFactory(Class<? extends AnnotatedCommand> clazz) {
+    try {
+      return MethodHandles.publicLookup().unreflectConstructor(clazz.getDeclaredConstructor()).asType(FACTORY_TYPE);
+    } catch (NoSuchMethodException | IllegalAccessException ignore) {
+      return null;
+    }
+  }
+
+  private static Injector[] resolveInjectors(Class<? extends AnnotatedCommand> clazz) {
+    List<Injector> injectors = new ArrayList<>();
+    for (Method method : clazz.getMethods()) {
+      if (!method.getName().startsWith("set") || method.getParameterCount() != 1) {
+        continue;
+      }
+      Option option = method.getAnnotation(Option.class);
+      Argument argument = method.getAnnotation(Argument.class);
+      if (option == null && argument == null) {
+        continue;
+      }
+      MethodHandle setter;
+      try {
+        setter = MethodHandles.publicLookup().unreflect(method).asType(SETTER_TYPE);
+      } catch (IllegalAccessException e) {
+        return null;
+      }
+      Class<?> type = method.getParameterTypes()[0];
+      if (option != null) {
+        String name = option.longName();
+        if (name == null || Option.NO_NAME.equals(name)) {
+          name = option.shortName();
+        }
+        injectors.add(new Injector(setter, type, name, -1));
+      }
+      if (argument != null) {
+        injectors.add(new Injector(setter, type, null, argument.index()));
+      }
+    }
+    return injectors.toArray(new Injector[0]);
+  }
+
+  private static class Injector {
+
+    final MethodHandle setter;
+    final Class<?> type;
+    final boolean multiple;
+    final String optionName;
+    final int argumentIndex;
+
+    Injector(MethodHandle setter, Class<?> type, String optionName, int argumentIndex) {
+      this.setter = setter;
+      this.type = type;
+      this.multiple = type.isArray() || Collection.class.isAssignableFrom(type);
+      this.optionName = optionName;
+      this.argumentIndex = argumentIndex;
+    }
+
+    void inject(CommandLine commandLine, AnnotatedCommand instance) throws CLIException {
+      Object value;
+      try {
+        if (optionName != null) {
+          if (commandLine.cli().getOption(optionName) == null) {
+            return;
+          }
+          value = multiple ? container(commandLine.getOptionValues(optionName)) : commandLine.getOptionValue(optionName);
+        } else {
+          if (commandLine.cli().getArgument(argumentIndex) == null) {
+            return;
+          }
+          value = multiple ? container(commandLine.getArgumentValues(argumentIndex)) : commandLine.getArgumentValue(argumentIndex);
+        }
+        if (value != null) {
+          setter.invokeExact(instance, value);
+        }
+      } catch (Throwable t) {
+        String msg = optionName != null ? "Cannot inject value for option '" + optionName + "'" : "Cannot inject value for argument '" + argumentIndex + "'";
+        throw new CLIException(msg, t instanceof Exception ? (Exception) t : new Exception(t));
+      }
+    }
+
+    private Object container(List<?> values) {
+      if (type.isArray()) {
+        Object array = Array.newInstance(type.getComponentType(), values.size());
+        for (int i = 0; i < values.size(); i++) {
+          Array.set(array, i, values.get(i));
+        }
+        return array;
+      }
+      if (Set.class.isAssignableFrom(type)) {
+        return new LinkedHashSet<>(values);
+      }
+      return values;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.command.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.cli.CLI;
+import io.vertx.core.cli.Option;
+import io.vertx.core.cli.annotations.CLIConfigurator;
+import io.vertx.ext.shell.cli.CliToken;
+import io.vertx.ext.shell.cli.Completion;
+import io.vertx.ext.shell.command.AnnotatedCommand;
+import io.vertx.ext.shell.command.Command;
+import io.vertx.ext.shell.command.CommandProcess;
+import io.vertx.ext.shell.command.Pure;
+import io.vertx.ext.shell.system.Process;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A command created from an {@link AnnotatedCommand} class, its processes run on the context it was created with or
+ * on the context creating them when it has none.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class AnnotatedCommandImpl implements Command {
+
+  private final Vertx vertx;
+  private final Context context;
+  private final AnnotatedCommandBinding binding;
+  private final CLI cli;
+  private final boolean overridesName;
+  private final boolean overridesCli;
+  private final CommandLineCache commandLineCache;
+
+  public AnnotatedCommandImpl(Vertx vertx, Context context, Class<? extends AnnotatedCommand> clazz) {
+    this.vertx = vertx;
+    this.context = context;
+    this.binding = AnnotatedCommandBinding.get(clazz);
+    this.cli = CLIConfigurator.define(clazz);
+    cli.addOption(new Option().setArgName("help").setFlag(true).setShortName("h").setLongName("help").setDescription("this help").setHelp(true));
+
+    boolean tmp = false;
+    try {
+      clazz.getDeclaredMethod("name");
+      tmp = true;
+    } catch (NoSuchMethodException ignore) {
+    }
+    this.overridesName = tmp;
+
+    tmp = false;
+    try {
+      clazz.getDeclaredMethod("cli");
+      tmp = true;
+    } catch (NoSuchMethodException ignore) {
+    }
+    this.overridesCli = tmp;
+
+    Pure pure = clazz.getAnnotation(Pure.class);
+    this.commandLineCache = pure != null && !overridesCli ? new CommandLineCache(pure.cacheSize()) : null;
+  }
+
+  @Override
+  public String name() {
+    if (overridesName) {
+      try {
+        return binding.newInstance().name();
+      } catch (Exception ignore) {
+        // Use cli.getName() instead
+      }
+    }
+    return cli.getName();
+  }
+
+  @Override
+  public CLI cli() {
+    if (overridesCli) {
+      try {
+        return binding.newInstance().cli();
+      } catch (Exception ignore) {
+        // Use cli instead
+      }
+    }
+    return cli;
+  }
+
+  private Context context() {
+    return context != null ? context : vertx.getOrCreateContext();
+  }
+
+  private void process(CommandProcess process) {
+    AnnotatedCommand instance;
+    try {
+      instance = binding.newInstance();
+    } catch (Exception e) {
+      process.end();
+      return;
+    }
+    binding.inject(process.commandLine(), instance);
+    instance.process(process);
+  }
+
+  @Override
+  public Process createProcess(List<CliToken> args) {
+    return new ProcessImpl(vertx, context(), this, args, this::process, commandLineCache);
+  }
+
+  @Override
+  public void complete(Completion completion) {
+    AnnotatedCommand instance;
+    try {
+      instance = binding.newInstance();
+    } catch (Exception e) {
+      Command.super.complete(completion);
+      return;
+    }
+    context().runOnContext(v -> {
+      try {
+        instance.complete(completion);
+      } catch (Throwable t) {
+        completion.complete(Collections.emptyList());
+        throw t;
+      }
+    });
+  }
+}
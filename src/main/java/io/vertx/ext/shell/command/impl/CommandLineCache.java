@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.command.impl;
+
+import io.vertx.core.cli.CommandLine;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded least recently used cache of validated command lines keyed by the argument values.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CommandLineCache {
+
+  private final LinkedHashMap<List<String>, CommandLine> entries;
+
+  public CommandLineCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Invalid cache size " + maxSize);
+    }
+    this.entries = new LinkedHashMap<List<String>, CommandLine>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<String>, CommandLine> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  public synchronized CommandLine get(List<String> args) {
+    return entries.get(args);
+  }
+
+  public synchronized void put(List<String> args, CommandLine commandLine) {
+    entries.put(args, commandLine);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+}
@@ -40,6 +40,7 @@ import io.vertx.ext.shell.command.CommandRegistry;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -55,6 +56,7 @@ public class CommandRegistryImpl implements CommandRegistry {
 
   final VertxInternal vertx;
   final ConcurrentHashMap<String, CommandRegistration> commandMap = new ConcurrentHashMap<>();
+  final AtomicInteger version = new AtomicInteger();
   final Closeable hook;
   private volatile boolean closed;
 
@@ -81,10 +83,21 @@ public class CommandRegistryImpl implements CommandRegistry {
     return closed;
   }
 
+  @Override
+  public long version() {
+    return version.get();
+  }
+
   public List<Command> commands() {
     return new ArrayList<>(commandMap.values().stream().map(reg -> reg.command).collect(Collectors.toList()));
   }
 
+  @Override
+  public Command getCommand(String name) {
+    CommandRegistration registration = commandMap.get(name);
+    return registration != null ? registration.command : null;
+  }
+
   @Override
   public Future<Command> registerCommand(Class<? extends AnnotatedCommand> command) {
     return registerCommand(Command.create(vertx, command));
@@ -138,12 +151,15 @@ public class CommandRegistryImpl implements CommandRegistry {
             newReg.put(name, registration);
           }
           commandMap.putAll(newReg);
+          version.incrementAndGet();
         }
 
         @Override
         public void stop() throws Exception {
           String deploymentId = deploymentID();
-          commandMap.values().removeIf(reg -> deploymentId.equals(reg.deploymendID));
+          if (commandMap.values().removeIf(reg -> deploymentId.equals(reg.deploymendID))) {
+            version.incrementAndGet();
+          }
         }
       })
       .onComplete(ar -> {
@@ -174,6 +190,7 @@ public class CommandRegistryImpl implements CommandRegistry {
     }
     CommandRegistration registration = commandMap.remove(name);
     if (registration != null) {
+      version.incrementAndGet();
       String deploymendID = registration.deploymendID;
       if (deploymendID != null) {
         if (commandMap.values().stream().noneMatch(reg -> deploymendID.equals(reg.deploymendID))) {
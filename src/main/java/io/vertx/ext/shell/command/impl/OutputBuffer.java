@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.command.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.term.Tty;
+
+import java.util.ArrayDeque;
+
+/**
+ * Coalesce the writes of a process to its {@link Tty}: the data written during an event loop turn is
+ * gathered and written at once to the tty on the process context. The buffer is flushed earlier when its size
+ * reaches a threshold and the writer runs on the process context, otherwise the tty is only written from the
+ * process context and a writer over the threshold should wait for the flush, see {@link #isFull()}.<p/>
+ *
+ * Consecutive text writes are merged in a single tty write, binary writes are kept in order with the text.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutputBuffer {
+
+  /**
+   * The default number of chars or bytes buffered before the buffer is flushed.
+   */
+  public static final int DEFAULT_MAX_SIZE = 8 * 1024;
+
+  private final Context context;
+  private final Tty tty;
+  private final int maxSize;
+  private final ArrayDeque<Object> pending = new ArrayDeque<>();
+  private StringBuilder text; // The text at the tail of pending
+  private int size;
+  private boolean flushScheduled;
+  private boolean drainPending;
+  private boolean drainMissed; // Flushed after reporting full, before a drain handler was set
+  private Handler<Void> drainHandler;
+
+  public OutputBuffer(Context context, Tty tty) {
+    this(context, tty, DEFAULT_MAX_SIZE);
+  }
+
+  public OutputBuffer(Context context, Tty tty, int maxSize) {
+    this.context = context;
+    this.tty = tty;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Append text to the buffer, the text is written to the tty later on the process context.
+   *
+   * @param data the text to append
+   */
+  public void write(String data) {
+    boolean flushNow;
+    synchronized (this) {
+      if (text == null) {
+        text = new StringBuilder();
+        pending.add(text);
+      }
+      text.append(data);
+      size += data.length();
+      flushNow = checkFlush();
+    }
+    if (flushNow) {
+      flushBuffer();
+    }
+  }
+
+  /**
+   * Append bytes to the buffer, the bytes are written to the tty later on the process context.
+   *
+   * @param data the bytes to append
+   */
+  public void write(Buffer data) {
+    boolean flushNow;
+    synchronized (this) {
+      pending.add(data);
+      text = null;
+      size += data.length();
+      flushNow = checkFlush();
+    }
+    if (flushNow) {
+      flushBuffer();
+    }
+  }
+
+  /**
+   * Flush the buffer to the tty, the flush is performed directly when called from the process context
+   * otherwise it is scheduled on the process context.
+   */
+  public void flush() {
+    if (Vertx.currentContext() == context) {
+      flushBuffer();
+    } else {
+      context.runOnContext(v -> flushBuffer());
+    }
+  }
+
+  /**
+   * @return the number of chars or bytes currently buffered
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * @return true when the buffer holds at least its threshold and waits for its flush on the process context,
+   * the drain handler is then called after the flush
+   */
+  public synchronized boolean isFull() {
+    if (size >= maxSize) {
+      drainPending = true;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Set a handler called after the buffer reported full has been flushed.
+   *
+   * @param handler the drain handler
+   */
+  public void drainHandler(Handler<Void> handler) {
+    boolean missed;
+    synchronized (this) {
+      drainHandler = handler;
+      missed = drainMissed && handler != null;
+      if (missed) {
+        drainMissed = false;
+      }
+    }
+    if (missed) {
+      handler.handle(null);
+    }
+  }
+
+  /**
+   * @return true when the buffer must be flushed now, otherwise a flush is scheduled
+   */
+  private boolean checkFlush() {
+    if (size >= maxSize && Vertx.currentContext() == context) {
+      return true;
+    }
+    if (!flushScheduled) {
+      flushScheduled = true;
+      context.runOnContext(v -> {
+        synchronized (OutputBuffer.this) {
+          flushScheduled = false;
+        }
+        flushBuffer();
+      });
+    }
+    return false;
+  }
+
+  /**
+   * Must be called on the process context.
+   */
+  private void flushBuffer() {
+    Handler<Void> drained;
+    Object[] items;
+    synchronized (this) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      items = pending.toArray();
+      pending.clear();
+      text = null;
+      size = 0;
+      drained = drainPending ? drainHandler : null;
+      drainMissed = drainPending && drained == null;
+      drainPending = false;
+    }
+    for (Object item : items) {
+      if (item instanceof Buffer) {
+        tty.write((Buffer) item);
+      } else {
+        tty.write(item.toString());
+      }
+    }
+    if (drained != null && !tty.writeQueueFull()) {
+      // Otherwise the tty drain handler signals it
+      drained.handle(null);
+    }
+  }
+}
@@ -35,6 +35,8 @@ package io.vertx.ext.shell.command.impl;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.cli.CLI;
 import io.vertx.core.cli.CLIException;
 import io.vertx.core.cli.CommandLine;
 import io.vertx.ext.shell.cli.CliToken;
@@ -43,10 +45,13 @@ import io.vertx.ext.shell.command.CommandProcess;
 import io.vertx.ext.shell.session.Session;
 import io.vertx.ext.shell.system.*;
 import io.vertx.ext.shell.system.Process;
+import io.vertx.ext.shell.term.Screen;
 import io.vertx.ext.shell.term.Tty;
+import io.vertx.ext.shell.term.impl.ScreenImpl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -59,6 +64,8 @@ public class ProcessImpl implements Process {
   private final Command commandContext;
   private final Handler<CommandProcess> handler;
   private final List<CliToken> args;
+  private final CommandLineCache commandLineCache;
+  private final ProcessMetrics metrics = new ProcessMetrics();
   private Tty tty;
   private Session session;
   private Handler<Void> interruptHandler;
@@ -77,18 +84,33 @@ public class ProcessImpl implements Process {
   private boolean processForeground;
   private Handler<String> stdinHandler;
   private Handler<Void> resizeHandler;
+  private Handler<Void> commandResizeHandler;
+  private Handler<Void> drainHandler;
+  private ScreenImpl screen;
   private Integer exitCode;
 
   public ProcessImpl(Vertx vertx, Context context, Command commandContext, List<CliToken> args, Handler<CommandProcess> handler) {
+    this(vertx, context, commandContext, args, handler, null);
+  }
+
+  public ProcessImpl(Vertx vertx, Context context, Command commandContext, List<CliToken> args, Handler<CommandProcess> handler, CommandLineCache commandLineCache) {
     this.vertx = vertx;
     this.context = context;
     this.commandContext = commandContext;
     this.handler = handler;
     this.args = args;
+    this.commandLineCache = commandLineCache;
     processContext = vertx.getOrCreateContext();
     processStatus = ExecStatus.READY;
   }
 
+  /**
+   * @return the metrics of this process
+   */
+  public ProcessMetrics metrics() {
+    return metrics;
+  }
+
   @Override
   public Integer exitCode() {
     return exitCode;
@@ -134,7 +156,7 @@ public class ProcessImpl implements Process {
       processContext.runOnContext(v -> {
         try {
           if (handler != null) {
-            handler.handle(null);
+            metrics.dispatch(handler, null);
           }
         } finally {
           if (completionHandler != null) {
@@ -237,6 +259,9 @@ public class ProcessImpl implements Process {
   private void updateStatus(ExecStatus statusUpdate, Integer exitCodeUpdate, boolean foregroundUpdate, Handler<Void> handler, Handler<Integer> terminatedHandler, Handler<Void> completionHandler) {
     processStatus = statusUpdate;
     exitCode = exitCodeUpdate;
+    if (statusUpdate == ExecStatus.TERMINATED) {
+      metrics.terminated();
+    }
     if (!foregroundUpdate) {
       if (processForeground) {
         processForeground = false;
@@ -246,6 +271,9 @@ public class ProcessImpl implements Process {
         if (resizeHandler != null) {
           tty.resizehandler(null);
         }
+        if (drainHandler != null) {
+          tty.drainHandler(null);
+        }
       }
     } else {
       if (!processForeground) {
@@ -256,13 +284,28 @@ public class ProcessImpl implements Process {
         if (resizeHandler != null) {
           tty.resizehandler(resizeHandler);
         }
+        if (drainHandler != null) {
+          tty.drainHandler(drainHandler);
+          if (!tty.writeQueueFull()) {
+            // The queue may have been drained while in background
+            drainHandler.handle(null);
+          }
+        }
+        if (screen != null) {
+          // The terminal was used by someone else
+          screen.invalidate();
+          screen.render();
+        }
       }
     }
+    if (screen != null && statusUpdate == ExecStatus.TERMINATED) {
+      screen.close();
+    }
     context.runOnContext(v -> {
       foreground = foregroundUpdate;
       try {
         if (handler != null) {
-          handler.handle(null);
+          metrics.dispatch(handler, null);
         }
       } finally {
         if (completionHandler != null) {
@@ -275,6 +318,24 @@ public class ProcessImpl implements Process {
     }
   }
 
+  private void updateResizeHandler() {
+    Handler<Void> handler = commandResizeHandler;
+    ScreenImpl s = screen;
+    if (handler != null || s != null) {
+      resizeHandler = v -> {
+        if (s != null) {
+          s.resize();
+        }
+        if (handler != null) {
+          context.runOnContext(event -> metrics.dispatch(handler, event));
+        }
+      };
+    } else {
+      resizeHandler = null;
+    }
+    tty.resizehandler(resizeHandler);
+  }
+
   @Override
   public synchronized void run(boolean fg) {
     if (processStatus != ExecStatus.READY) {
@@ -283,6 +344,7 @@ public class ProcessImpl implements Process {
     processStatus = ExecStatus.RUNNING;
     processForeground = fg;
     foreground = fg;
+    metrics.started();
 
     // Make a local copy
     Tty tty = this.tty;
@@ -291,31 +353,52 @@ public class ProcessImpl implements Process {
     }
 
     CommandLine cl;
-    final List<String> args2 = args.stream().filter(CliToken::isText).map(CliToken::value).collect(Collectors.toList());
-    if (commandContext.cli() != null) {
-
-      //
-      try {
-        // Build to skip validation problems
-        if (commandContext.cli().parse(args2, false).isAskingForHelp()) {
+    final List<String> args2 = textValues(args);
+    CLI cli = commandContext.cli();
+    if (cli != null) {
+      cl = commandLineCache != null ? commandLineCache.get(args2) : null;
+      if (cl == null) {
+        CLIException failure = null;
+        try {
+          cl = cli.parse(args2);
+        } catch (CLIException e) {
+          failure = e;
+        }
+        boolean help;
+        if (failure == null) {
+          help = cl.isAskingForHelp();
+        } else {
+          // Validation failed, parse again without validating since asking for help does not require valid arguments
+          try {
+            help = cli.parse(args2, false).isAskingForHelp();
+          } catch (CLIException e) {
+            failure = e;
+            help = false;
+          }
+        }
+        if (help) {
           StringBuilder usage = new StringBuilder();
-          commandContext.cli().usage(usage);
+          cli.usage(usage);
           usage.append('\n');
           tty.write(usage.toString());
           terminate();
           return;
         }
-
-        cl = commandContext.cli().parse(args2);
-      } catch (CLIException e) {
-        tty.write(e.getMessage() + "\n");
-        terminate();
-        return;
+        if (failure != null) {
+          tty.write(failure.getMessage() + "\n");
+          terminate();
+          return;
+        }
+        if (commandLineCache != null) {
+          commandLineCache.put(args2, cl);
+        }
       }
     } else {
       cl = null;
     }
 
+    OutputBuffer out = new OutputBuffer(processContext, tty);
+
     CommandProcess process = new CommandProcess() {
 
       @Override
@@ -353,6 +436,25 @@ public class ProcessImpl implements Process {
         return session;
       }
 
+      @Override
+      public Screen screen() {
+        synchronized (ProcessImpl.this) {
+          if (screen == null) {
+            screen = new ScreenImpl(vertx, context, tty, frame -> {
+              synchronized (ProcessImpl.this) {
+                if (processStatus != ExecStatus.RUNNING || !processForeground) {
+                  return false;
+                }
+              }
+              out.write(frame);
+              return true;
+            });
+            updateResizeHandler();
+          }
+          return screen;
+        }
+      }
+
       @Override
       public int width() {
         return tty.width();
@@ -366,7 +468,10 @@ public class ProcessImpl implements Process {
       @Override
       public CommandProcess stdinHandler(Handler<String> handler) {
         if (handler != null) {
-          stdinHandler = data -> context.runOnContext(v -> handler.handle(data));
+          stdinHandler = data -> context.runOnContext(v -> {
+            metrics.read(data);
+            metrics.dispatch(handler, data);
+          });
         } else {
           stdinHandler = null;
         }
@@ -383,18 +488,54 @@ public class ProcessImpl implements Process {
             throw new IllegalStateException("Cannot write to standard output when " + status().name().toLowerCase());
           }
         }
-        processContext.runOnContext(v -> tty.write(data));
+        metrics.written(data);
+        out.write(data);
         return this;
       }
 
       @Override
-      public CommandProcess resizehandler(Handler<Void> handler) {
+      public CommandProcess write(Buffer data) {
+        synchronized (ProcessImpl.this) {
+          if (processStatus != ExecStatus.RUNNING) {
+            throw new IllegalStateException("Cannot write to standard output when " + status().name().toLowerCase());
+          }
+        }
+        metrics.written(data);
+        out.write(data);
+        return this;
+      }
+
+      @Override
+      public CommandProcess flush() {
+        out.flush();
+        return this;
+      }
+
+      @Override
+      public boolean writeQueueFull() {
+        return out.isFull() || tty.writeQueueFull();
+      }
+
+      @Override
+      public CommandProcess drainHandler(Handler<Void> handler) {
         if (handler != null) {
-          resizeHandler = v -> context.runOnContext(handler::handle);
+          drainHandler = v -> context.runOnContext(event -> metrics.dispatch(handler, event));
         } else {
-          resizeHandler = null;
+          drainHandler = null;
+        }
+        out.drainHandler(drainHandler);
+        if (processForeground) {
+          tty.drainHandler(drainHandler);
+        }
+        return this;
+      }
+
+      @Override
+      public CommandProcess resizehandler(Handler<Void> handler) {
+        synchronized (ProcessImpl.this) {
+          commandResizeHandler = handler;
+          updateResizeHandler();
         }
-        tty.resizehandler(resizeHandler);
         return this;
       }
 
@@ -461,11 +602,21 @@ public class ProcessImpl implements Process {
     //
     context.runOnContext(v -> {
       try {
-        handler.handle(process);
+        metrics.dispatch(handler, process);
       } catch (Throwable e) {
         terminate(1, null);
         throw e;
       }
     });
   }
+
+  private static List<String> textValues(List<CliToken> tokens) {
+    List<String> values = new ArrayList<>(tokens.size());
+    for (CliToken token : tokens) {
+      if (token.isText()) {
+        values.add(token.value());
+      }
+    }
+    return Collections.unmodifiableList(values);
+  }
 }
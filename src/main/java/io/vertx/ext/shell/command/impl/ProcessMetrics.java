@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.command.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.system.JobMetrics;
+import io.vertx.ext.shell.term.impl.Helper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a process, counters are updated without locking.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ProcessMetrics implements JobMetrics {
+
+  private volatile long startTime;
+  private volatile long endTime;
+  private final LongAdder handlerTime = new LongAdder();
+  private final LongAdder handlerDispatches = new LongAdder();
+  private final LongAdder bytesWritten = new LongAdder();
+  private final LongAdder linesWritten = new LongAdder();
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder linesRead = new LongAdder();
+
+  void started() {
+    startTime = System.nanoTime();
+  }
+
+  void terminated() {
+    if (startTime != 0 && endTime == 0) {
+      endTime = System.nanoTime();
+    }
+  }
+
+  /**
+   * Call a handler and account the time spent. Only the handlers dispatched by the process are timed, the tasks the
+   * command schedules by other means on its context (event bus consumers, timers...) are not.
+   */
+  <T> void dispatch(Handler<T> handler, T event) {
+    long start = System.nanoTime();
+    try {
+      handler.handle(event);
+    } finally {
+      handlerTime.add(System.nanoTime() - start);
+      handlerDispatches.increment();
+    }
+  }
+
+  void written(String data) {
+    bytesWritten.add(Helper.utf8Length(data));
+    linesWritten.add(Helper.lines(data));
+  }
+
+  void written(Buffer data) {
+    bytesWritten.add(data.length());
+    linesWritten.add(Helper.lines(data));
+  }
+
+  void read(String data) {
+    bytesRead.add(Helper.utf8Length(data));
+    // Terminals send a carriage return for the enter key
+    int lines = 0;
+    for (int i = 0;i < data.length();i++) {
+      char c = data.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == data.length() || data.charAt(i + 1) != '\n'))) {
+        lines++;
+      }
+    }
+    linesRead.add(lines);
+  }
+
+  @Override
+  public long wallTime() {
+    long start = startTime;
+    if (start == 0) {
+      return 0;
+    }
+    long end = endTime;
+    return TimeUnit.NANOSECONDS.toMillis((end != 0 ? end : System.nanoTime()) - start);
+  }
+
+  @Override
+  public long handlerTime() {
+    return handlerTime.sum();
+  }
+
+  @Override
+  public long handlerDispatches() {
+    return handlerDispatches.sum();
+  }
+
+  @Override
+  public long bytesWritten() {
+    return bytesWritten.sum();
+  }
+
+  @Override
+  public long linesWritten() {
+    return linesWritten.sum();
+  }
+
+  @Override
+  public long bytesRead() {
+    return bytesRead.sum();
+  }
+
+  @Override
+  public long linesRead() {
+    return linesRead.sum();
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.OutputRatePolicy;
+import io.vertx.ext.shell.term.Tty;
+import io.vertx.ext.shell.term.impl.Helper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate at which the jobs of a shell session write to the session terminal, the budget is
+ * refilled continuously and can hold up to one second of output. Output exceeding the budget is handled
+ * according to the {@link OutputRatePolicy}. The backlog of the block policy is bounded, the output exceeding it
+ * is summarized.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutputGovernor implements Tty {
+
+  /**
+   * The default capacity of the backlog of the block policy, in seconds of output.
+   */
+  public static final int DEFAULT_BACKLOG_SECONDS = 10;
+
+  private static class Chunk {
+    final Object data;
+    final int size;
+    final int lines;
+    Chunk(Object data, int size, int lines) {
+      this.data = data;
+      this.size = size;
+      this.lines = lines;
+    }
+  }
+
+  private final Vertx vertx;
+  private final Tty tty;
+  private final long rate;
+  private final OutputRatePolicy policy;
+  private final long maxBacklog;
+  private final Object sendLock = new Object();
+  private final List<Handler<Void>> drainedHandlers = new ArrayList<>();
+  private final ArrayDeque<Chunk> backlog = new ArrayDeque<>();
+  private final LongAdder suppressedBytes = new LongAdder();
+  private final LongAdder suppressedLines = new LongAdder();
+  private long backlogSize;
+  private double tokens;
+  private long refillTime;
+  private long timerID = -1;
+  private long summarizedBytes;
+  private long summarizedLines;
+  private boolean full;
+  private boolean closed;
+  private Handler<Void> drainHandler;
+
+  public OutputGovernor(Vertx vertx, Tty tty, long rate, OutputRatePolicy policy) {
+    this(vertx, tty, rate, policy, DEFAULT_BACKLOG_SECONDS * rate);
+  }
+
+  public OutputGovernor(Vertx vertx, Tty tty, long rate, OutputRatePolicy policy, long maxBacklog) {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("Invalid output rate " + rate);
+    }
+    this.vertx = vertx;
+    this.tty = tty;
+    this.rate = rate;
+    this.policy = policy != null ? policy : OutputRatePolicy.BLOCK;
+    this.maxBacklog = maxBacklog;
+    this.tokens = rate;
+    this.refillTime = System.nanoTime();
+  }
+
+  /**
+   * @return the number of bytes suppressed so far
+   */
+  public long suppressedBytes() {
+    return suppressedBytes.sum();
+  }
+
+  /**
+   * @return the number of lines suppressed so far
+   */
+  public long suppressedLines() {
+    return suppressedLines.sum();
+  }
+
+  @Override
+  public String type() {
+    return tty.type();
+  }
+
+  @Override
+  public int width() {
+    return tty.width();
+  }
+
+  @Override
+  public int height() {
+    return tty.height();
+  }
+
+  @Override
+  public Tty stdinHandler(Handler<String> handler) {
+    tty.stdinHandler(handler);
+    return this;
+  }
+
+  @Override
+  public Tty resizehandler(Handler<Void> handler) {
+    tty.resizehandler(handler);
+    return this;
+  }
+
+  @Override
+  public Tty write(String data) {
+    return write(new Chunk(data, Helper.utf8Length(data), Helper.lines(data)));
+  }
+
+  @Override
+  public Tty write(Buffer data) {
+    return write(new Chunk(data, data.length(), Helper.lines(data)));
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    synchronized (this) {
+      if (full) {
+        return true;
+      }
+    }
+    return tty.writeQueueFull();
+  }
+
+  @Override
+  public Tty drainHandler(Handler<Void> handler) {
+    synchronized (this) {
+      drainHandler = handler;
+    }
+    tty.drainHandler(handler != null ? v -> {
+      synchronized (OutputGovernor.this) {
+        if (full) {
+          return;
+        }
+      }
+      handler.handle(null);
+    } : null);
+    return this;
+  }
+
+  /**
+   * Call the {@code handler} once the pending output has been written to the tty, immediately when there is none.
+   *
+   * @param handler the handler
+   */
+  public void whenDrained(Handler<Void> handler) {
+    synchronized (this) {
+      if (!closed && (backlog.size() > 0 || summarizedBytes > 0)) {
+        drainedHandlers.add(handler);
+        return;
+      }
+    }
+    handler.handle(null);
+  }
+
+  /**
+   * Discard the pending output and stop the governor.
+   */
+  public synchronized void close() {
+    closed = true;
+    backlog.clear();
+    backlogSize = 0;
+    drainedHandlers.clear();
+    if (timerID != -1) {
+      vertx.cancelTimer(timerID);
+      timerID = -1;
+    }
+  }
+
+  private Tty write(Chunk chunk) {
+    // The send lock keeps the admitted writes in order with the drained ones
+    synchronized (sendLock) {
+      boolean admitted;
+      synchronized (this) {
+        if (closed) {
+          return this;
+        }
+        refill();
+        admitted = backlog.isEmpty() && summarizedBytes == 0 && tokens > 0;
+        if (admitted) {
+          tokens -= chunk.size;
+        } else {
+          switch (policy) {
+            case SUMMARIZE:
+              suppress(chunk);
+              summarizedBytes += chunk.size;
+              summarizedLines += chunk.lines;
+              break;
+            case DROP_OLDEST:
+              backlog.add(chunk);
+              backlogSize += chunk.size;
+              while (backlogSize > rate && backlog.size() > 1) {
+                Chunk dropped = backlog.poll();
+                backlogSize -= dropped.size;
+                suppress(dropped);
+              }
+              break;
+            default:
+              if (summarizedBytes == 0 && backlogSize + chunk.size <= maxBacklog) {
+                backlog.add(chunk);
+                backlogSize += chunk.size;
+              } else {
+                // The command does not honour the back pressure
+                suppress(chunk);
+                summarizedBytes += chunk.size;
+                summarizedLines += chunk.lines;
+              }
+              full = true;
+              break;
+          }
+          schedule();
+        }
+      }
+      if (admitted) {
+        send(chunk.data);
+      }
+      return this;
+    }
+  }
+
+  private void drain() {
+    List<Object> toSend = new ArrayList<>();
+    Handler<Void> handler = null;
+    List<Handler<Void>> drained = null;
+    synchronized (sendLock) {
+      synchronized (this) {
+        timerID = -1;
+        if (closed) {
+          return;
+        }
+        refill();
+        while (tokens > 0 && backlog.size() > 0) {
+          Chunk chunk = backlog.poll();
+          backlogSize -= chunk.size;
+          tokens -= chunk.size;
+          toSend.add(chunk.data);
+        }
+        // The suppressed output always follows the backlog
+        if (backlog.isEmpty() && summarizedBytes > 0 && tokens > 0) {
+          String summary = "... " + (summarizedLines > 0 ? summarizedLines + " lines" : summarizedBytes + " bytes") + " suppressed ...\n";
+          tokens -= summary.length();
+          summarizedBytes = 0;
+          summarizedLines = 0;
+          toSend.add(summary);
+        }
+        if (backlog.size() > 0 || summarizedBytes > 0) {
+          schedule();
+        } else {
+          if (full) {
+            full = false;
+            handler = drainHandler;
+          }
+          if (drainedHandlers.size() > 0) {
+            drained = new ArrayList<>(drainedHandlers);
+            drainedHandlers.clear();
+          }
+        }
+      }
+      toSend.forEach(this::send);
+    }
+    if (handler != null && !tty.writeQueueFull()) {
+      handler.handle(null);
+    }
+    if (drained != null) {
+      drained.forEach(h -> h.handle(null));
+    }
+  }
+
+  private void suppress(Chunk chunk) {
+    suppressedBytes.add(chunk.size);
+    suppressedLines.add(chunk.lines);
+  }
+
+  private void schedule() {
+    if (timerID == -1) {
+      long delay = Math.max(1, (long) Math.ceil((1 - tokens) * 1000 / rate));
+      timerID = vertx.setTimer(delay, id -> drain());
+    }
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(rate, tokens + (now - refillTime) * (double) rate / 1_000_000_000);
+    refillTime = now;
+  }
+
+  private void send(Object data) {
+    if (data instanceof Buffer) {
+      tty.write((Buffer) data);
+    } else {
+      tty.write((String) data);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.term.Tty;
+
+/**
+ * The tty of the jobs of a detachable shell, it forwards to the current term of the shell and registers again the
+ * job handlers on the term reattaching the shell.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class ReattachableTty implements Tty {
+
+  private volatile Tty tty;
+  private volatile boolean attached = true;
+  private volatile Handler<String> stdinHandler;
+  private volatile Handler<Void> resizeHandler;
+  private volatile Handler<Void> drainHandler;
+
+  ReattachableTty(Tty tty) {
+    this.tty = tty;
+  }
+
+  /**
+   * Stop forwarding the handlers to the current tty.
+   */
+  synchronized void detach() {
+    attached = false;
+  }
+
+  /**
+   * Forward to a new tty and register the current handlers on it.
+   */
+  synchronized void attach(Tty tty) {
+    this.tty = tty;
+    this.attached = true;
+    tty.stdinHandler(stdinHandler);
+    tty.resizehandler(resizeHandler);
+    tty.drainHandler(drainHandler);
+  }
+
+  @Override
+  public String type() {
+    return tty.type();
+  }
+
+  @Override
+  public int width() {
+    return tty.width();
+  }
+
+  @Override
+  public int height() {
+    return tty.height();
+  }
+
+  @Override
+  public synchronized Tty stdinHandler(Handler<String> handler) {
+    stdinHandler = handler;
+    if (attached) {
+      tty.stdinHandler(handler);
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized Tty resizehandler(Handler<Void> handler) {
+    resizeHandler = handler;
+    if (attached) {
+      tty.resizehandler(handler);
+    }
+    return this;
+  }
+
+  @Override
+  public Tty write(String data) {
+    tty.write(data);
+    return this;
+  }
+
+  @Override
+  public Tty write(Buffer data) {
+    tty.write(data);
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return attached && tty.writeQueueFull();
+  }
+
+  @Override
+  public synchronized Tty drainHandler(Handler<Void> handler) {
+    drainHandler = handler;
+    if (attached) {
+      tty.drainHandler(handler);
+    }
+    return this;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A hashed timing wheel expiring the idle shell sessions.<p/>
+ *
+ * A session is kept in the slot of the first tick following its idle deadline, a tick only visits the slots
+ * elapsed since the previous tick: a session accessed since it was scheduled moves to the slot of its new deadline,
+ * otherwise it expires. The cost of a tick is proportional to the sessions of the visited slots instead of the
+ * total number of sessions.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class SessionReaper {
+
+  private static final int MAX_SLOTS = 4096;
+
+  private final long tick;
+  private final List<Set<ShellImpl>> slots;
+  private long lastTick;
+
+  SessionReaper(long timeout, long tick, long now) {
+    if (tick < 1) {
+      throw new IllegalArgumentException("Invalid tick " + tick);
+    }
+    int size = (int) Math.min(MAX_SLOTS, Math.max(0, timeout) / tick + 2);
+    this.tick = tick;
+    this.slots = new ArrayList<>(size);
+    for (int i = 0;i < size;i++) {
+      slots.add(new HashSet<>());
+    }
+    this.lastTick = now / tick;
+  }
+
+  synchronized void add(ShellImpl session) {
+    schedule(session);
+  }
+
+  synchronized void remove(ShellImpl session) {
+    if (session.reaperSlot >= 0) {
+      slots.get(session.reaperSlot).remove(session);
+      session.reaperSlot = -1;
+    }
+  }
+
+  /**
+   * @return the number of scheduled sessions
+   */
+  synchronized int size() {
+    int size = 0;
+    for (Set<ShellImpl> slot : slots) {
+      size += slot.size();
+    }
+    return size;
+  }
+
+  /**
+   * Visit the slots elapsed since the last tick.
+   *
+   * @param now the current time
+   * @return the expired sessions, they are not scheduled anymore and should be closed
+   */
+  synchronized List<ShellImpl> expire(long now) {
+    long current = now / tick;
+    // When the timer fired late, a single round of the wheel visits every slot
+    long from = Math.max(lastTick + 1, current - slots.size() + 1);
+    lastTick = Math.max(lastTick, current);
+    List<ShellImpl> expired = null;
+    List<ShellImpl> accessed = null;
+    for (long t = from;t <= current;t++) {
+      Set<ShellImpl> slot = slots.get((int) (t % slots.size()));
+      for (Iterator<ShellImpl> it = slot.iterator();it.hasNext();) {
+        ShellImpl session = it.next();
+        it.remove();
+        session.reaperSlot = -1;
+        if (session.idleDeadline() < now) {
+          if (expired == null) {
+            expired = new ArrayList<>();
+          }
+          expired.add(session);
+        } else {
+          if (accessed == null) {
+            accessed = new ArrayList<>();
+          }
+          accessed.add(session);
+        }
+      }
+    }
+    if (accessed != null) {
+      accessed.forEach(this::schedule);
+    }
+    return expired != null ? expired : Collections.emptyList();
+  }
+
+  private void schedule(ShellImpl session) {
+    // The first tick visited after the deadline
+    long t = Math.max(lastTick + 1, session.idleDeadline() / tick + 1);
+    int index = (int) (t % slots.size());
+    slots.get(index).add(session);
+    session.reaperSlot = index;
+  }
+}
@@ -33,6 +33,7 @@
 package io.vertx.ext.shell.impl;
 
 import io.termd.core.util.Helper;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.ext.shell.Shell;
 import io.vertx.ext.shell.session.Session;
@@ -41,13 +42,19 @@ import io.vertx.ext.shell.system.*;
 import io.vertx.ext.shell.system.Process;
 import io.vertx.ext.shell.system.impl.InternalCommandManager;
 import io.vertx.ext.shell.system.impl.JobControllerImpl;
+import io.vertx.ext.shell.system.impl.JobImpl;
+import io.vertx.ext.shell.system.impl.OutputCapture;
 import io.vertx.ext.shell.cli.CliToken;
+import io.vertx.ext.shell.cli.impl.CliTokenImpl;
 import io.vertx.ext.shell.term.Term;
+import io.vertx.ext.shell.term.Tty;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -58,29 +65,50 @@ import java.util.function.Function;
 public class ShellImpl implements Shell {
 
   final String id;
+  final String user;
   final Promise<Void> closedPromise;
   private final InternalCommandManager commandManager;
   private final Session session = new SessionImpl();
   private final JobControllerImpl jobController;
-  private final Term term;
+  private volatile Term term;
+  private Tty tty;
+  private OutputCapture backlog;
+  private ReattachableTty reattachable;
+  private Function<String, ShellImpl> detachedShells;
+  private long detachTimeout;
+  private volatile long detachedTime = -1;
+  private volatile boolean closing;
+  private Handler<Boolean> detachHandler;
+  private OutputGovernor governor;
   private String welcome;
   private Function<Session, String> promptFunc = s -> "% ";
+  private volatile long sessionTimeout = -1;
+  private int maxJobs;
+  private final LongAdder rejectedJobs = new LongAdder();
+  int reaperSlot = -1; // Guarded by the session reaper
 
   public ShellImpl(Term term, InternalCommandManager commandManager) {
 
     session.put("vert.x-command-manager", commandManager);
 
     this.id = UUID.randomUUID().toString();
+    this.user = term != null ? term.user() : null;
     this.jobController = new JobControllerImpl();
     this.commandManager = commandManager;
     this.closedPromise = Promise.promise();
     this.term = term;
+    this.tty = term;
 
     if (term != null) {
       term.setSession(session);
       jobController.foregroundUpdatedHandler(job -> {
         if (job == null) {
-          readline();
+          // Prompt after the job output held by the governor
+          if (governor != null) {
+            governor.whenDrained(v -> readline());
+          } else {
+            readline();
+          }
         }
       });
     }
@@ -92,10 +120,9 @@ public class ShellImpl implements Shell {
 
   @Override
   public synchronized Job createJob(List<CliToken> args) {
-    StringBuilder line = new StringBuilder();
-    args.stream().map(CliToken::raw).forEach(line::append);
+    String line = CliTokenImpl.rawLine(args);
     Process process = commandManager.createProcess(args);
-    return jobController.createJob(process, line.toString());
+    return jobController.createJob(process, line);
   }
 
   @Override
@@ -112,16 +139,165 @@ public class ShellImpl implements Shell {
     return term.lastAccessedTime();
   }
 
+  /**
+   * Set the time, in ms, this shell lasts for without being accessed before expiring, a negative value
+   * disables the expiration.
+   */
+  public void setSessionTimeout(long sessionTimeout) {
+    this.sessionTimeout = sessionTimeout;
+  }
+
+  @Override
+  public long idleDeadline() {
+    long detached = detachedTime;
+    if (detached >= 0) {
+      return detached + detachTimeout;
+    }
+    long timeout = sessionTimeout;
+    if (term == null || timeout < 0) {
+      return -1;
+    }
+    return term.lastAccessedTime() + timeout;
+  }
+
+  /**
+   * Make this shell detachable: when its connection is lost the shell is detached instead of being closed, its jobs
+   * keep running and their output is kept in a backlog until a new term reattaches the shell.
+   *
+   * @param timeout the time in ms the shell stays detached before being closed
+   * @param backlog the capacity in chars of the output kept while detached
+   * @param detachedShells resolves a shell from its id for the {@code attach} command
+   */
+  public void setDetachTimeout(long timeout, int backlog, Function<String, ShellImpl> detachedShells) {
+    this.detachTimeout = timeout;
+    this.detachedShells = detachedShells;
+    this.reattachable = new ReattachableTty(term);
+    this.backlog = new OutputCapture(reattachable, backlog);
+    this.tty = this.backlog;
+  }
+
+  /**
+   * @return the tty of the jobs of this shell
+   */
+  public Tty jobTty() {
+    return tty;
+  }
+
+  /**
+   * @return whether this shell is detached from its term
+   */
+  public boolean isDetached() {
+    return detachedTime >= 0;
+  }
+
+  /**
+   * Set a handler called with {@code true} when this shell is detached and with {@code false} when it is reattached.
+   */
+  public void detachHandler(Handler<Boolean> handler) {
+    this.detachHandler = handler;
+  }
+
+  private void detach() {
+    // Keep the output from now until a term reattaches
+    backlog.capture();
+    reattachable.detach();
+    detachedTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Reattach this shell to a new term, the output kept while detached is written to the term.
+   *
+   * @return false when the shell is not detached
+   */
+  boolean attach(Term term) {
+    synchronized (this) {
+      if (detachedTime < 0 || closing) {
+        return false;
+      }
+      this.term = term;
+      term.setSession(session);
+      bind(term);
+      reattachable.attach(term);
+      detachedTime = -1;
+      backlog.replay();
+      if (jobController.foregroundJob() == null) {
+        readline();
+      }
+    }
+    Handler<Boolean> handler = detachHandler;
+    if (handler != null) {
+      handler.handle(false);
+    }
+    return true;
+  }
+
   public void setWelcome(String welcome) {
     this.welcome = welcome;
   }
 
+  /**
+   * Set the capacity of the output captured for background jobs, {@code 0} disables the capture.
+   */
+  public void setBackgroundOutputCapture(int capacity) {
+    jobController.setOutputCapture(capacity);
+  }
+
+  /**
+   * Set the maximum number of concurrent running jobs of this shell, {@code 0} means no limit.
+   */
+  public void setMaxJobs(int maxJobs) {
+    this.maxJobs = maxJobs;
+  }
+
+  @Override
+  public long rejectedJobs() {
+    return rejectedJobs.sum();
+  }
+
+  private int runningJobs() {
+    int count = 0;
+    for (Job job : jobController.jobs()) {
+      if (job.status() == ExecStatus.RUNNING) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Set the governor limiting the output of the jobs of this shell.
+   */
+  public void setOutputGovernor(OutputGovernor governor) {
+    this.governor = governor;
+  }
+
   @Override
   public void setPrompt(Function<Session, String> prompt) {
     this.promptFunc = prompt;
   }
 
+  @Override
+  public long suppressedBytes() {
+    return governor != null ? governor.suppressedBytes() : 0;
+  }
+
+  @Override
+  public long suppressedLines() {
+    return governor != null ? governor.suppressedLines() : 0;
+  }
+
   public ShellImpl init() {
+    bind(term);
+    if (welcome != null && welcome.length() > 0) {
+      term.write(welcome);
+    }
+    if (reattachable != null) {
+      term.write("Reattach this session with: attach " + id + "\n");
+    }
+    return this;
+  }
+
+  private void bind(Term term) {
 
     term.interruptHandler(key -> jobController().foregroundJob().interrupt());
 
@@ -133,35 +309,160 @@ public class ShellImpl implements Shell {
       return true;
     });
 
-    term.closeHandler(v ->
-        jobController.close(ar ->
-            closedPromise.complete()
-        )
+    term.closeHandler(v -> {
+      boolean detached;
+      synchronized (ShellImpl.this) {
+        if (ShellImpl.this.term != term) {
+          // Closing a term replaced by a reattach
+          return;
+        }
+        if (reattachable == null || closing) {
+          detached = false;
+        } else {
+          detach();
+          detached = true;
+        }
+      }
+      if (!detached) {
+        closeJobs();
+        return;
+      }
+      Handler<Boolean> handler = detachHandler;
+      if (handler != null) {
+        handler.handle(true);
+      }
+    });
+  }
+
+  private void closeJobs() {
+    if (governor != null) {
+      governor.close();
+    }
+    jobController.close(ar ->
+        closedPromise.tryComplete()
     );
-    if (welcome != null && welcome.length() > 0) {
-      term.write(welcome);
+  }
+
+  private void attach(List<CliToken> tokens) {
+    String token = null;
+    int count = 0;
+    for (CliToken t : tokens) {
+      if (t.isText() && count++ == 1) {
+        token = t.value();
+      }
     }
-    return this;
+    if (token == null) {
+      term.write("usage: attach session\n");
+      readline();
+      return;
+    }
+    if (!jobController.jobs().isEmpty()) {
+      term.write("cannot attach a session with jobs\n");
+      readline();
+      return;
+    }
+    ShellImpl detached = detachedShells != null ? detachedShells.apply(token) : null;
+    if (detached == null || detached == this || !Objects.equals(detached.user, term.user())) {
+      term.write("no such session\n");
+      readline();
+      return;
+    }
+    Term term = this.term;
+    synchronized (this) {
+      // Hand over the term without closing it
+      closing = true;
+      this.term = null;
+    }
+    if (!detached.attach(term)) {
+      synchronized (this) {
+        closing = false;
+        this.term = term;
+      }
+      term.write("no such session\n");
+      readline();
+      return;
+    }
+    closeJobs();
   }
 
   private String statusLine(Job job, ExecStatus status) {
     StringBuilder sb = new StringBuilder("[").append(job.id()).append("]");
-    if (findJob() == job) {
+    if (jobController.currentJob() == job) {
       sb.append("+");
+    } else if (jobController.previousJob() == job) {
+      sb.append("-");
     }
     sb.append(" ").append(Character.toUpperCase(status.name().charAt(0))).append(job.status().name().substring(1).toLowerCase());
     sb.append(" ").append(job.line());
     return sb.toString();
   }
 
+  private static String metricsLine(JobMetrics metrics) {
+    return "    wall " + metrics.wallTime() + "ms" +
+      ", handlers " + TimeUnit.NANOSECONDS.toMillis(metrics.handlerTime()) + "ms/" + metrics.handlerDispatches() + " dispatches" +
+      ", out " + metrics.bytesWritten() + " bytes/" + metrics.linesWritten() + " lines" +
+      ", in " + metrics.bytesRead() + " bytes/" + metrics.linesRead() + " lines";
+  }
+
+  private void jobOutput(List<CliToken> tokens) {
+    List<String> args = new ArrayList<>();
+    for (CliToken token : tokens) {
+      if (token.isText()) {
+        args.add(token.value());
+      }
+    }
+    if (args.size() < 2) {
+      term.write("usage: job-output %job [line]\n");
+      return;
+    }
+    JobImpl job;
+    int from;
+    try {
+      String spec = args.get(1);
+      job = (JobImpl) jobController.getJob(Integer.parseInt(spec.startsWith("%") ? spec.substring(1) : spec));
+      from = args.size() > 2 ? Integer.parseInt(args.get(2)) - 1 : -1;
+    } catch (NumberFormatException e) {
+      job = null;
+      from = -1;
+    }
+    if (job == null) {
+      term.write("no such job\n");
+      return;
+    }
+    OutputCapture capture = job.outputCapture();
+    if (capture == null) {
+      term.write("job output is not captured\n");
+      return;
+    }
+    List<String> lines = capture.lines();
+    if (lines.isEmpty()) {
+      term.write("-- no output --\n");
+      return;
+    }
+    int page = term.height() > 1 ? term.height() - 1 : 23;
+    if (from < 0) {
+      // Show the tail by default
+      from = Math.max(0, lines.size() - page);
+    }
+    from = Math.min(from, lines.size() - 1);
+    int to = Math.min(lines.size(), from + page);
+    StringBuilder sb = new StringBuilder();
+    for (int i = from;i < to;i++) {
+      sb.append(lines.get(i)).append('\n');
+    }
+    sb.append("-- lines ").append(from + 1).append('-').append(to).append(" of ").append(lines.size()).append(" --\n");
+    term.write(sb.toString());
+  }
+
   private Job findJob() {
-    Job foregroundJob = jobController.foregroundJob();
-    return jobController().jobs().
-      stream().
-      filter(job -> job != foregroundJob).min(Comparator.comparingLong(Job::lastStopped)).orElse(null);
+    return jobController.currentJob();
   }
 
   public void readline() {
+    if (isDetached()) {
+      // The term reattaching the shell will prompt
+      return;
+    }
     String prompt;
     try {
       prompt = promptFunc.apply(session);
@@ -172,67 +473,93 @@ public class ShellImpl implements Shell {
 
       if (line == null) {
         // EOF
-        term.close();
+        logout();
         return;
       }
 
       List<CliToken> tokens = CliToken.tokenize(line);
 
-      if (tokens.stream().filter(CliToken::isText).count() == 0) {
+      CliToken first = null;
+      for (CliToken token : tokens) {
+        if (token.isText()) {
+          first = token;
+          break;
+        }
+      }
+
+      if (first == null) {
         // For now do like this
         ShellImpl.this.readline();
         return;
       }
 
-      Optional<CliToken> first = tokens.stream().filter(CliToken::isText).findFirst();
-      if (first.isPresent()) {
-        String name = first.get().value();
-        switch (name) {
-          case "exit":
-          case "logout":
-            term.close();
-            return;
-          case "jobs":
-            jobController.jobs().forEach(job -> {
-              String statusLine = statusLine(job, job.status()) + "\n";
-              term.write(statusLine);
-            });
+      String name = first.value();
+      switch (name) {
+        case "exit":
+        case "logout":
+          logout();
+          return;
+        case "attach":
+          attach(tokens);
+          return;
+        case "jobs": {
+          boolean details = tokens.stream().anyMatch(token -> token.isText() && token.value().equals("-l"));
+          jobController.jobs().forEach(job -> {
+            String statusLine = statusLine(job, job.status()) + "\n";
+            if (details) {
+              statusLine += metricsLine(job.metrics()) + "\n";
+            }
+            term.write(statusLine);
+          });
+          readline();
+          return;
+        }
+        case "job-output": {
+          jobOutput(tokens);
+          readline();
+          return;
+        }
+        case "fg": {
+          Job job = findJob();
+          if (job == null) {
+            term.write("no such job\n");
             readline();
-            return;
-          case "fg": {
-            Job job = findJob();
-            if (job == null) {
-              term.write("no such job\n");
-              readline();
-            } else {
-              if (job.status() == ExecStatus.STOPPED) {
-                job.resume(true);
-              } else {
-                job.toForeground();
-              }
+          } else if (job.status() == ExecStatus.STOPPED) {
+            if (rejectJob()) {
+              return;
             }
-            return;
+            job.resume(true);
+          } else {
+            job.toForeground();
           }
-          case "bg": {
-            Job job = findJob();
-            if (job == null) {
-              term.write("no such job\n");
+          return;
+        }
+        case "bg": {
+          Job job = findJob();
+          if (job == null) {
+            term.write("no such job\n");
+            readline();
+          } else {
+            if (job.status() == ExecStatus.STOPPED) {
+              if (rejectJob()) {
+                return;
+              }
+              job.resume(false);
+              term.echo(statusLine(job, ExecStatus.RUNNING) + "\n");
               readline();
             } else {
-              if (job.status() == ExecStatus.STOPPED) {
-                job.resume(false);
-                term.echo(statusLine(job, ExecStatus.RUNNING) + "\n");
-                readline();
-              } else {
-                term.write("job " + job.id() + " already in background\n");
-                readline();
-              }
+              term.write("job " + job.id() + " already in background\n");
+              readline();
             }
-            return;
           }
+          return;
         }
       }
 
+      if (rejectJob()) {
+        return;
+      }
+
       Job job;
       try {
         job = createJob(tokens);
@@ -241,17 +568,40 @@ public class ShellImpl implements Shell {
         readline();
         return;
       }
-      job.setTty(term);
+      job.setTty(governor != null ? governor : tty);
       job.setSession(session);
       job.run();
     }, commandManager::complete);
   }
 
+  /**
+   * Reject a job to run when this shell runs its maximum of jobs.
+   */
+  private boolean rejectJob() {
+    if (maxJobs > 0 && runningJobs() >= maxJobs) {
+      rejectedJobs.increment();
+      term.write("too many running jobs\n");
+      readline();
+      return true;
+    }
+    return false;
+  }
+
+  private void logout() {
+    closing = true;
+    term.close();
+  }
+
   public void close() {
+    Term term;
+    synchronized (this) {
+      closing = true;
+      term = isDetached() ? null : this.term;
+    }
     if (term != null) {
       term.close();
     } else {
-      jobController.close(ar -> closedPromise.complete());
+      closeJobs();
     }
   }
 }
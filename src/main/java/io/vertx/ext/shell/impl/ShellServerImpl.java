@@ -33,10 +33,12 @@
 package io.vertx.ext.shell.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.ext.shell.OutputRatePolicy;
 import io.vertx.ext.shell.Shell;
 import io.vertx.ext.shell.ShellServer;
 import io.vertx.ext.shell.ShellServerOptions;
@@ -47,34 +49,88 @@ import io.vertx.ext.shell.system.Process;
 import io.vertx.ext.shell.system.impl.InternalCommandManager;
 import io.vertx.ext.shell.term.Term;
 import io.vertx.ext.shell.term.TermServer;
+import io.vertx.ext.shell.term.impl.SSHExec;
 import io.vertx.ext.shell.term.impl.SSHServer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 public class ShellServerImpl implements ShellServer {
 
+  /**
+   * The sessions of a term server, guarded by the shell server.
+   */
+  private static class Admission {
+    int sessions;
+    final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+  }
+
+  /**
+   * A connection waiting for a session, either a term or an SSH exec.
+   */
+  private static class Waiter {
+    final String user;
+    final Runnable start;
+    final Runnable close;
+    Waiter(String user, Runnable start, Runnable close) {
+      this.user = user;
+      this.start = start;
+      this.close = close;
+    }
+  }
+
+  /**
+   * The admission of a session, released while the session is detached, guarded by the shell server.
+   */
+  private static class Slot {
+    final Admission admission;
+    final String user;
+    boolean held = true;
+    Slot(Admission admission, String user) {
+      this.admission = admission;
+      this.user = user;
+    }
+  }
+
   private final Vertx vertx;
   private final CopyOnWriteArrayList<CommandResolver> resolvers;
   private final InternalCommandManager commandManager;
   private final List<TermServer> termServers;
+  private final Map<TermServer, Context> listenContexts = new HashMap<>();
+  private final Map<TermServer, TermServer> sharedAdmissions = new HashMap<>();
   private final long timeoutMillis;
   private final long reaperInterval;
   private final String welcomeMessage;
+  private final long outputRateLimit;
+  private final OutputRatePolicy outputRatePolicy;
+  private final boolean bracketedPaste;
+  private final int backgroundOutputCapture;
+  private final long detachTimeout;
+  private final int detachBacklog;
+  private final int maxSessions;
+  private final int maxSessionsPerUser;
+  private final int sessionQueueSize;
+  private final int maxJobsPerSession;
+  private final List<Admission> admissions = new ArrayList<>();
+  private final Map<String, Integer> userSessions = new HashMap<>();
+  private final LongAdder rejectedSessions = new LongAdder();
   private boolean closed = true;
   private long timerID = -1;
+  private final SessionReaper reaper;
   private final Map<String, ShellImpl> sessions;
   private final Promise<Void> sessionsClosed = Promise.promise();
   private Handler<Shell> shellHandler;
@@ -86,6 +142,17 @@ public class ShellServerImpl implements ShellServer {
     this.timeoutMillis = options.getSessionTimeout();
     this.sessions = new ConcurrentHashMap<>();
     this.reaperInterval = options.getReaperInterval();
+    this.reaper = reaperInterval > 0 ? new SessionReaper(timeoutMillis, reaperInterval, System.currentTimeMillis()) : null;
+    this.outputRateLimit = options.getOutputRateLimit();
+    this.outputRatePolicy = options.getOutputRatePolicy();
+    this.bracketedPaste = options.isBracketedPaste();
+    this.backgroundOutputCapture = options.getBackgroundOutputCapture();
+    this.detachTimeout = options.getDetachTimeout();
+    this.detachBacklog = options.getDetachBacklog();
+    this.maxSessions = options.getMaxSessions();
+    this.maxSessionsPerUser = options.getMaxSessionsPerUser();
+    this.sessionQueueSize = options.getSessionQueueSize();
+    this.maxJobsPerSession = options.getMaxJobsPerSession();
     this.resolvers = new CopyOnWriteArrayList<>();
     this.commandManager = new InternalCommandManager(resolvers);
 
@@ -95,13 +162,16 @@ public class ShellServerImpl implements ShellServer {
         CommandBuilder.command("logout").processHandler(process -> {}).build(vertx),
         CommandBuilder.command("jobs").processHandler(process -> {}).build(vertx),
         CommandBuilder.command("fg").processHandler(process -> {}).build(vertx),
-        CommandBuilder.command("bg").processHandler(process -> {}).build(vertx)
+        CommandBuilder.command("bg").processHandler(process -> {}).build(vertx),
+        CommandBuilder.command("job-output").processHandler(process -> {}).build(vertx),
+        CommandBuilder.command("attach").processHandler(process -> {}).build(vertx)
     ));
   }
 
   @Override
   public synchronized ShellServer registerCommandResolver(CommandResolver resolver) {
     resolvers.add(0, resolver);
+    commandManager.invalidate();
     return this;
   }
 
@@ -111,22 +181,209 @@ public class ShellServerImpl implements ShellServer {
     return this;
   }
 
-  private void handleTerm(Term term) {
+  /**
+   * Register a term server listening from {@code context}, the sessions it accepts count against the admission of
+   * the {@code shared} term server, when it is not null. It lets several term servers bound to the same port
+   * spread the accept and the I/O over event loops while the sessions and their limits are shared.
+   *
+   * @param termServer the term server
+   * @param context the context listening
+   * @param shared the term server whose admission is shared, or null
+   */
+  public synchronized ShellServerImpl registerTermServer(TermServer termServer, Context context, TermServer shared) {
+    termServers.add(termServer);
+    listenContexts.put(termServer, context);
+    if (shared != null) {
+      sharedAdmissions.put(termServer, shared);
+    }
+    return this;
+  }
+
+  private void handleTerm(Admission admission, Term term) {
+    String user = term.user();
     synchronized (this) {
       // That might happen with multiple ser
       if (closed) {
         term.close();
         return;
       }
+      if (!acquire(admission, user)) {
+        if (admission.waiting.size() < sessionQueueSize) {
+          Waiter waiter = new Waiter(user, () -> startSession(admission, user, term), term::close);
+          term.closeHandler(v -> {
+            synchronized (ShellServerImpl.this) {
+              admission.waiting.remove(waiter);
+            }
+          });
+          term.write("Too many sessions, waiting for a session...\n");
+          admission.waiting.add(waiter);
+        } else {
+          rejectedSessions.increment();
+          term.write("Too many sessions, try again later\n");
+          term.close();
+        }
+        return;
+      }
+    }
+    startSession(admission, user, term);
+  }
+
+  /**
+   * An SSH exec counts as a session of its term server, it is admitted, queued or rejected like a term.
+   */
+  private void handleExec(Admission admission, SSHExec exec) {
+    String user = exec.user();
+    synchronized (this) {
+      if (closed) {
+        exec.end(1);
+        return;
+      }
+      if (!acquire(admission, user)) {
+        if (admission.waiting.size() < sessionQueueSize) {
+          Waiter waiter = new Waiter(user, () -> startExec(admission, user, exec), () -> exec.end(1));
+          exec.closeHandler(v -> {
+            synchronized (ShellServerImpl.this) {
+              admission.waiting.remove(waiter);
+            }
+          });
+          exec.write("Too many sessions, waiting for a session...\n");
+          admission.waiting.add(waiter);
+        } else {
+          rejectedSessions.increment();
+          exec.write("Too many sessions, try again later\n");
+          exec.end(1);
+        }
+        return;
+      }
+    }
+    startExec(admission, user, exec);
+  }
+
+  private void startExec(Admission admission, String user, SSHExec exec) {
+    Slot slot = new Slot(admission, user);
+    Process process;
+    try {
+      process = commandManager.createProcess(exec.command());
+    } catch (RuntimeException e) {
+      release(slot);
+      throw e;
+    }
+    process.setSession(new SessionImpl());
+    process.setTty(exec);
+    process.terminatedHandler(code -> {
+      release(slot);
+      exec.end(code);
+    });
+    process.run(true);
+  }
+
+  /**
+   * Acquire a session for {@code user} on a term server, guarded by this.
+   */
+  private boolean acquire(Admission admission, String user) {
+    if (maxSessions > 0 && admission.sessions >= maxSessions) {
+      return false;
+    }
+    if (user != null && maxSessionsPerUser > 0 && userSessions.getOrDefault(user, 0) >= maxSessionsPerUser) {
+      return false;
+    }
+    admission.sessions++;
+    if (user != null) {
+      userSessions.merge(user, 1, Integer::sum);
+    }
+    return true;
+  }
+
+  /**
+   * Acquire again the slot of a reattached session, the connection reattaching it holds a slot until it is closed,
+   * so the limits are not checked.
+   */
+  private synchronized void reacquire(Slot slot) {
+    if (!slot.held) {
+      slot.held = true;
+      slot.admission.sessions++;
+      if (slot.user != null) {
+        userSessions.merge(slot.user, 1, Integer::sum);
+      }
+    }
+  }
+
+  /**
+   * Release the slot of a session and start the waiting connections that can now be admitted.
+   */
+  private void release(Slot slot) {
+    List<Runnable> toStart = new ArrayList<>();
+    synchronized (this) {
+      if (!slot.held) {
+        return;
+      }
+      slot.held = false;
+      slot.admission.sessions--;
+      if (slot.user != null) {
+        userSessions.computeIfPresent(slot.user, (key, count) -> count > 1 ? count - 1 : null);
+      }
+      if (!closed) {
+        for (Admission a : admissions) {
+          for (Iterator<Waiter> it = a.waiting.iterator();it.hasNext();) {
+            Waiter waiter = it.next();
+            if (acquire(a, waiter.user)) {
+              it.remove();
+              toStart.add(waiter.start);
+            }
+          }
+        }
+      }
+    }
+    toStart.forEach(Runnable::run);
+  }
+
+  private void startSession(Admission admission, String user, Term term) {
+    if (bracketedPaste) {
+      term.setBracketedPaste(true);
     }
+    Slot slot = new Slot(admission, user);
     ShellImpl session = createShell(term);
     session.setWelcome(welcomeMessage);
+    session.setSessionTimeout(timeoutMillis);
+    session.setBackgroundOutputCapture(backgroundOutputCapture);
+    session.setMaxJobs(maxJobsPerSession);
+    if (detachTimeout > 0) {
+      session.setDetachTimeout(detachTimeout, detachBacklog, sessions::get);
+      session.detachHandler(detached -> {
+        // A detached session does not count, so its user can connect again to reattach it
+        if (detached) {
+          release(slot);
+        } else {
+          reacquire(slot);
+        }
+        if (reaper != null) {
+          // The deadline of the session changed
+          reaper.remove(session);
+          if (sessions.containsKey(session.id)) {
+            reaper.add(session);
+          }
+        } else if (detached) {
+          vertx.setTimer(detachTimeout, id -> {
+            if (session.isDetached() && session.idleDeadline() <= System.currentTimeMillis()) {
+              session.close();
+            }
+          });
+        }
+      });
+    }
+    if (outputRateLimit > 0) {
+      session.setOutputGovernor(new OutputGovernor(vertx, session.jobTty(), outputRateLimit, outputRatePolicy));
+    }
     session.closedPromise.future().onComplete(ar -> {
       boolean completeSessionClosed;
+      if (reaper != null) {
+        reaper.remove(session);
+      }
       synchronized (ShellServerImpl.this) {
         sessions.remove(session.id);
         completeSessionClosed = sessions.isEmpty() && closed;
       }
+      release(slot);
       if (completeSessionClosed) {
         sessionsClosed.complete();
       }
@@ -136,17 +393,32 @@ public class ShellServerImpl implements ShellServer {
       shellHandler.handle(session);
     }
     sessions.put(session.id, session); // Put after init so the close handler on the connection is set
+    if (reaper != null) {
+      reaper.add(session);
+    }
     session.readline(); // Now readline
   }
 
   @Override
   public Future<Void> listen() {
     List<TermServer> toStart;
+    Map<TermServer, Admission> admissionOf = new HashMap<>();
+    Map<TermServer, Context> contextOf;
     synchronized (this) {
       if (!closed) {
         throw new IllegalStateException("Server listening");
       }
       toStart = termServers;
+      contextOf = new HashMap<>(listenContexts);
+      for (TermServer termServer : toStart) {
+        TermServer shared = sharedAdmissions.get(termServer);
+        Admission admission = shared != null ? admissionOf.get(shared) : null;
+        if (admission == null) {
+          admission = new Admission();
+          admissions.add(admission);
+        }
+        admissionOf.put(termServer, admission);
+      }
     }
     AtomicInteger count = new AtomicInteger(toStart.size());
     if (count.get() == 0) {
@@ -175,42 +447,39 @@ public class ShellServerImpl implements ShellServer {
       }
     };
     toStart.forEach(termServer -> {
+      Admission admission = admissionOf.get(termServer);
       if (termServer instanceof SSHServer) {
-        ((SSHServer)termServer).setExecHandler(exec -> {
-          Process process = commandManager.createProcess(exec.command());
-          process.setSession(new SessionImpl());
-          process.setTty(exec);
-          process.terminatedHandler(exec::end);
-          process.run(true);
-        });
+        ((SSHServer)termServer).setExecHandler(exec -> handleExec(admission, exec));
+      }
+      termServer.termHandler(term -> handleTerm(admission, term));
+      Context context = contextOf.get(termServer);
+      if (context != null) {
+        context.runOnContext(v -> termServer.listen().onComplete(handler));
+      } else {
+        termServer.listen()
+          .onComplete(handler);
       }
-      termServer.termHandler(this::handleTerm);
-      termServer.listen()
-        .onComplete(handler);
     });
     return p.future();
   }
 
   private void evictSessions(long timerID) {
-    long now = System.currentTimeMillis();
-    Set<ShellImpl> toClose = new HashSet<>();
-    for (ShellImpl session: sessions.values()) {
-      if (now - session.lastAccessedTime() > timeoutMillis) {
-        toClose.add(session);
-      }
-    }
-    for (ShellImpl session: toClose) {
+    for (ShellImpl session : reaper.expire(System.currentTimeMillis())) {
       session.close();
     }
-    setTimer();
   }
 
   private synchronized void setTimer() {
-    if (!closed && reaperInterval > 0) {
-      timerID = vertx.setTimer(reaperInterval, this::evictSessions);
+    if (!closed && reaper != null) {
+      timerID = vertx.setPeriodic(reaperInterval, this::evictSessions);
     }
   }
 
+  @Override
+  public long rejectedSessions() {
+    return rejectedSessions.sum();
+  }
+
   @Override
   public synchronized Shell createShell() {
     return createShell(null);
@@ -228,14 +497,18 @@ public class ShellServerImpl implements ShellServer {
   public Future<Void> close() {
     List<TermServer> toStop;
     List<ShellImpl> toClose;
+    List<Waiter> waiting = new ArrayList<>();
     synchronized (this) {
       if (closed) {
         toStop = Collections.emptyList();
         toClose = Collections.emptyList();
       } else {
+        admissions.forEach(admission -> waiting.addAll(admission.waiting));
+        admissions.clear();
         closed = true;
         if (timerID != -1) {
           vertx.cancelTimer(timerID);
+          timerID = -1;
         }
         toStop = termServers;
         toClose = new ArrayList<>(sessions.values());
@@ -244,6 +517,7 @@ public class ShellServerImpl implements ShellServer {
         }
       }
     }
+    waiting.forEach(waiter -> waiter.close.run());
     if (toStop.isEmpty() && toClose.isEmpty()) {
       return Future.succeededFuture();
     } else {
@@ -32,7 +32,12 @@
 
 package io.vertx.ext.shell.impl;
 
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import io.vertx.core.*;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.spi.transport.Transport;
 import io.vertx.ext.shell.ShellServer;
 import io.vertx.ext.shell.ShellServerOptions;
 import io.vertx.ext.shell.command.CommandRegistry;
@@ -45,12 +50,14 @@ import io.vertx.ext.shell.term.TelnetTermOptions;
 import io.vertx.ext.shell.term.HttpTermOptions;
 import io.vertx.ext.shell.term.impl.SSHServer;
 import io.vertx.ext.shell.term.impl.TelnetTermServer;
+import io.vertx.ext.shell.term.TermServer;
 import io.vertx.ext.shell.term.impl.HttpTermServer;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -60,13 +67,14 @@ public class ShellServiceImpl implements ShellService {
 
   private final Vertx vertx;
   private final ShellServiceOptions options;
-  private final ShellServer server;
+  private final ShellServerImpl server;
   private final CommandRegistry registry;
+  private volatile EventLoopGroup eventLoopGroup;
 
   public ShellServiceImpl(Vertx vertx, ShellServiceOptions options) {
     this.vertx = vertx;
     this.options = options;
-    this.server = ShellServer.create(vertx, new ShellServerOptions(options));
+    this.server = new ShellServerImpl(vertx, new ShellServerOptions(options));
     this.registry = CommandRegistry.getShared(vertx);
   }
 
@@ -119,25 +127,59 @@ public class ShellServiceImpl implements ShellService {
   }
 
   private void startServer(List<CommandResolver> resolvers, Completable<Void> startHandler) {
+    VertxInternal vertxInternal = (VertxInternal) vertx;
+    ContextInternal current = vertxInternal.getOrCreateContext();
+    if (options.getEventLoopPoolSize() > 0) {
+      // Same transport as Vert.x, so the accepted channels can be registered on the dedicated event loops
+      eventLoopGroup = vertxInternal.transport().eventLoopGroup(Transport.IO_EVENT_LOOP_GROUP, options.getEventLoopPoolSize(),
+        new DefaultThreadFactory("vert.x-shell-eventloop-thread", true), 50);
+    }
     TelnetTermOptions telnetOptions = options.getTelnetOptions();
     SSHTermOptions sshOptions = options.getSSHOptions();
     HttpTermOptions webOptions = options.getHttpOptions();
-    if (telnetOptions != null) {
-      server.registerTermServer(new TelnetTermServer(vertx, telnetOptions));
-    }
-    if (sshOptions != null) {
-      server.registerTermServer(new SSHServer(vertx, sshOptions));
-    }
-    if (webOptions != null) {
-      server.registerTermServer(new HttpTermServer(vertx, webOptions));
+    TermServer telnet = null;
+    TermServer http = null;
+    for (int i = 0;i < Math.max(1, options.getInstances());i++) {
+      ContextInternal context;
+      if (eventLoopGroup != null) {
+        // Term servers listen from the dedicated event loops, the sessions and their built-in commands follow them
+        context = vertxInternal.createEventLoopContext(eventLoopGroup.next(), current.workerPool(), current.classLoader());
+      } else if (i == 0) {
+        context = null;
+      } else {
+        // Each other instance listens from its own event loop, the Telnet and HTTP servers share their port
+        context = vertxInternal.createEventLoopContext();
+      }
+      // The instances share the sessions and the admission of the first instance
+      if (telnetOptions != null) {
+        TermServer termServer = new TelnetTermServer(vertx, telnetOptions);
+        server.registerTermServer(termServer, context, telnet);
+        telnet = telnet != null ? telnet : termServer;
+      }
+      if (sshOptions != null && i == 0) {
+        // The SSH server cannot share its port
+        server.registerTermServer(new SSHServer(vertx, sshOptions), context, null);
+      }
+      if (webOptions != null) {
+        TermServer termServer = new HttpTermServer(vertx, webOptions);
+        server.registerTermServer(termServer, context, http);
+        http = http != null ? http : termServer;
+      }
     }
     resolvers.forEach(server::registerCommandResolver);
     server.listen()
+      .onFailure(err -> stop())
       .onComplete(startHandler);
   }
 
   @Override
   public Future<Void> stop() {
-    return server.close();
+    Future<Void> fut = server.close();
+    EventLoopGroup group = eventLoopGroup;
+    if (group != null) {
+      eventLoopGroup = null;
+      fut = fut.andThen(ar -> group.shutdownGracefully(0, 1, TimeUnit.SECONDS));
+    }
+    return fut;
   }
 }
@@ -65,6 +65,12 @@ public interface Job {
    */
   long lastStopped();
 
+  /**
+   * @return the resources used by the job
+   */
+  @CacheReturn
+  JobMetrics metrics();
+
   /**
    * @return the execution line of the job, i.e the shell command line that launched this job
    */
@@ -51,7 +51,7 @@ public interface JobController {
   Job foregroundJob();
 
   /**
-   * @return the active jobs
+   * @return an immutable snapshot of the active jobs ordered by id
    */
   Set<Job> jobs();
 
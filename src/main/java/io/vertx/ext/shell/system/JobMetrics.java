@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.system;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The resources used by a {@link Job}, the values are updated while the job runs.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public interface JobMetrics {
+
+  /**
+   * @return the time elapsed since the job started until now or until it terminated, in milliseconds
+   */
+  long wallTime();
+
+  /**
+   * The time of the handlers set on the process, e.g stdin, signals or end. The handlers the command registers
+   * elsewhere, like an event bus consumer, run on the same context but are not accounted.
+   *
+   * @return the cumulative time spent by the process handlers on the command context, in nanoseconds
+   */
+  long handlerTime();
+
+  /**
+   * @return the number of process handler dispatches
+   */
+  long handlerDispatches();
+
+  /**
+   * @return the number of bytes written by the job to its tty
+   */
+  long bytesWritten();
+
+  /**
+   * @return the number of lines written by the job to its tty
+   */
+  long linesWritten();
+
+  /**
+   * @return the number of bytes read by the job from its stdin
+   */
+  long bytesRead();
+
+  /**
+   * @return the number of lines read by the job from its stdin
+   */
+  long linesRead();
+
+}
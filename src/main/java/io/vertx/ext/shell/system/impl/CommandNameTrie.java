@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.system.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A prefix trie of command names, each node caches the names below it and their longest common prefix until the
+ * trie is modified.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class CommandNameTrie {
+
+  private static class Node {
+
+    final Node parent;
+    final String prefix;
+    final TreeMap<Integer, Node> children = new TreeMap<>();
+    boolean terminal;
+    List<String> candidates;
+    String commonPrefix;
+
+    Node(Node parent, String prefix) {
+      this.parent = parent;
+      this.prefix = prefix;
+    }
+  }
+
+  private final Node root = new Node(null, "");
+  private int size;
+
+  /**
+   * @return the number of names in the trie
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Add a name to the trie.
+   *
+   * @param name the name
+   * @return true if the name was added
+   */
+  public synchronized boolean add(String name) {
+    Node node = root;
+    int i = 0;
+    while (i < name.length()) {
+      int cp = name.codePointAt(i);
+      i += Character.charCount(cp);
+      Node parent = node;
+      int end = i;
+      node = node.children.computeIfAbsent(cp, key -> new Node(parent, name.substring(0, end)));
+    }
+    if (node.terminal) {
+      return false;
+    }
+    node.terminal = true;
+    size++;
+    invalidate(node);
+    return true;
+  }
+
+  /**
+   * Remove a name from the trie.
+   *
+   * @param name the name
+   * @return true if the name was removed
+   */
+  public synchronized boolean remove(String name) {
+    Node node = find(name);
+    if (node == null || !node.terminal) {
+      return false;
+    }
+    node.terminal = false;
+    size--;
+    invalidate(node);
+    // Prune the branches that do not lead to a name anymore
+    while (node.parent != null && !node.terminal && node.children.isEmpty()) {
+      Node parent = node.parent;
+      parent.children.remove(node.prefix.codePointBefore(node.prefix.length()));
+      node = parent;
+    }
+    return true;
+  }
+
+  /**
+   * Remove the names not contained in {@code retained}.
+   *
+   * @param retained the names to keep
+   */
+  public synchronized void retain(Set<String> retained) {
+    for (String name : candidates(root)) {
+      if (!retained.contains(name)) {
+        remove(name);
+      }
+    }
+  }
+
+  /**
+   * @param prefix the prefix
+   * @return the sorted names starting with {@code prefix}
+   */
+  public synchronized List<String> candidates(String prefix) {
+    Node node = find(prefix);
+    return node != null ? candidates(node) : Collections.emptyList();
+  }
+
+  /**
+   * @param prefix the prefix
+   * @return the longest common prefix of the names starting with {@code prefix} or null when there is no such name
+   */
+  public synchronized String commonPrefix(String prefix) {
+    Node node = find(prefix);
+    return node != null ? commonPrefix(node) : null;
+  }
+
+  private Node find(String prefix) {
+    Node node = root;
+    int i = 0;
+    while (node != null && i < prefix.length()) {
+      int cp = prefix.codePointAt(i);
+      i += Character.charCount(cp);
+      node = node.children.get(cp);
+    }
+    return node;
+  }
+
+  private static void invalidate(Node node) {
+    for (;node != null;node = node.parent) {
+      node.candidates = null;
+      node.commonPrefix = null;
+    }
+  }
+
+  private static List<String> candidates(Node node) {
+    if (node.candidates == null) {
+      List<String> list = new ArrayList<>();
+      if (node.terminal) {
+        list.add(node.prefix);
+      }
+      for (Node child : node.children.values()) {
+        list.addAll(candidates(child));
+      }
+      node.candidates = Collections.unmodifiableList(list);
+    }
+    return node.candidates;
+  }
+
+  private static String commonPrefix(Node node) {
+    if (node.commonPrefix == null) {
+      Node current = node;
+      while (!current.terminal && current.children.size() == 1) {
+        current = current.children.firstEntry().getValue();
+      }
+      node.commonPrefix = current.prefix;
+    }
+    return node.commonPrefix;
+  }
+}
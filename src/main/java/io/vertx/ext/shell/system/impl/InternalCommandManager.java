@@ -36,6 +36,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.VertxException;
 import io.vertx.ext.shell.cli.CliToken;
 import io.vertx.ext.shell.cli.Completion;
+import io.vertx.ext.shell.cli.impl.CliTokenImpl;
 import io.vertx.ext.shell.command.Command;
 import io.vertx.ext.shell.command.CommandResolver;
 import io.vertx.ext.shell.session.Session;
@@ -43,11 +44,12 @@ import io.vertx.ext.shell.system.Process;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -55,6 +57,8 @@ import java.util.stream.Collectors;
 public class InternalCommandManager {
 
   private final List<CommandResolver> resolvers;
+  private volatile Index index;
+  private final CommandNameTrie names = new CommandNameTrie();
 
   public InternalCommandManager(CommandResolver... resolvers) {
     this.resolvers = Arrays.asList(resolvers);
@@ -68,6 +72,103 @@ public class InternalCommandManager {
     return resolvers;
   }
 
+  /**
+   * Discard the command index, it will be rebuilt on the next lookup.
+   */
+  public void invalidate() {
+    index = null;
+  }
+
+  /**
+   * @return the commands of all resolvers, a command hides the commands with the same name of the following resolvers
+   */
+  public Collection<Command> commands() {
+    return index().commands.values();
+  }
+
+  /**
+   * Lookup a command by its name.
+   *
+   * @param name the command name
+   * @return the command or null
+   */
+  public Command getCommand(String name) {
+    // The index is current, a miss is final
+    return index().commands.get(name);
+  }
+
+  private Index index() {
+    Index current = index;
+    if (current == null || !current.isCurrent(resolvers)) {
+      current = rebuild();
+    }
+    return current;
+  }
+
+  private synchronized Index rebuild() {
+    Index current = index;
+    if (current != null && current.isCurrent(resolvers)) {
+      return current;
+    }
+    List<CommandResolver> sources = new ArrayList<>(resolvers);
+    long[] versions = new long[sources.size()];
+    List<List<Command>> snapshots = new ArrayList<>(sources.size());
+    Map<String, Command> commands = new LinkedHashMap<>();
+    for (int i = 0;i < sources.size();i++) {
+      CommandResolver resolver = sources.get(i);
+      // Read the version first, a concurrent change is detected by the next lookup
+      versions[i] = resolver.version();
+      List<Command> list = resolver.commands();
+      snapshots.add(versions[i] < 0 ? list : null);
+      for (Command command : list) {
+        commands.putIfAbsent(command.name(), command);
+      }
+    }
+    // Apply the difference to the name trie
+    names.retain(commands.keySet());
+    commands.keySet().forEach(names::add);
+    current = new Index(sources, versions, snapshots, commands);
+    index = current;
+    return current;
+  }
+
+  private static class Index {
+
+    final List<CommandResolver> resolvers;
+    final long[] versions;
+    final List<List<Command>> snapshots;
+    final Map<String, Command> commands;
+
+    Index(List<CommandResolver> resolvers, long[] versions, List<List<Command>> snapshots, Map<String, Command> commands) {
+      this.resolvers = resolvers;
+      this.versions = versions;
+      this.snapshots = snapshots;
+      this.commands = Collections.unmodifiableMap(commands);
+    }
+
+    /**
+     * @return whether the index reflects the current commands of the resolvers
+     */
+    boolean isCurrent(List<CommandResolver> current) {
+      int i = 0;
+      for (CommandResolver resolver : current) {
+        if (i >= resolvers.size() || resolvers.get(i) != resolver) {
+          return false;
+        }
+        long version = resolver.version();
+        if (version != versions[i]) {
+          return false;
+        }
+        // A resolver that does not track its changes is compared with the commands it returned
+        if (version < 0 && !resolver.commands().equals(snapshots.get(i))) {
+          return false;
+        }
+        i++;
+      }
+      return i == resolvers.size();
+    }
+  }
+
   /**
    * Parses a command line and try to create a process.
    *
@@ -97,15 +198,13 @@ public class InternalCommandManager {
     while (tokens.hasNext()) {
       CliToken token = tokens.next();
       if (token.isText()) {
-        for (CommandResolver resolver : resolvers) {
-          Command command = resolver.getCommand(token.value());
-          if (command != null) {
-            List<CliToken> remaining = new ArrayList<>();
-            while (tokens.hasNext()) {
-              remaining.add(tokens.next());
-            }
-            return command.createProcess(remaining);
+        Command command = getCommand(token.value());
+        if (command != null) {
+          List<CliToken> remaining = new ArrayList<>();
+          while (tokens.hasNext()) {
+            remaining.add(tokens.next());
           }
+          return command.createProcess(remaining);
         }
         throw new IllegalArgumentException(token.value() + ": command not found");
       }
@@ -119,78 +218,67 @@ public class InternalCommandManager {
    * @param completion the completion object
    */
   public void complete(Completion completion) {
-    LinkedList<CliToken> tokens = new LinkedList<>(completion.lineTokens());
+    List<CliToken> tokens = completion.lineTokens();
+    int size = tokens.size();
 
-    // Remove any leading white space
-    while (tokens.size() > 0 && tokens.getFirst().isBlank()) {
-      tokens.removeFirst();
+    // Skip any leading white space
+    int index = 0;
+    while (index < size && tokens.get(index).isBlank()) {
+      index++;
     }
 
     // > 1 means it's a text token followed by something else
-    if (tokens.size() > 1) {
-      ListIterator<CliToken> it = tokens.listIterator();
-      while (it.hasNext()) {
-        CliToken ct = it.next();
-        it.remove();
-        if (ct.isText()) {
-          List<CliToken> newTokens = new ArrayList<>();
-          while (it.hasNext()) {
-            newTokens.add(it.next());
+    if (size - index > 1) {
+      CliToken ct = tokens.get(index);
+      List<CliToken> newTokens = tokens.subList(index + 1, size);
+      String line = CliTokenImpl.rawLine(newTokens);
+      Command command = getCommand(ct.value());
+      if (command != null) {
+        command.complete(new Completion() {
+          @Override
+          public Vertx vertx() {
+            return completion.vertx();
           }
-          StringBuilder tmp = new StringBuilder();
-          newTokens.stream().forEach(token -> tmp.append(token.raw()));
-          String line = tmp.toString();
-          for (CommandResolver resolver : resolvers) {
-            Command command = resolver.getCommand(ct.value());
-            if (command != null) {
-              command.complete(new Completion() {
-                @Override
-                public Vertx vertx() {
-                  return completion.vertx();
-                }
-                @Override
-                public Session session() {
-                  return completion.session();
-                }
-                @Override
-                public String rawLine() {
-                  return line;
-                }
-                @Override
-                public List<CliToken> lineTokens() {
-                  return newTokens;
-                }
-                @Override
-                public void complete(List<String> candidates) {
-                  completion.complete(candidates);
-                }
-                @Override
-                public void complete(String value, boolean terminal) {
-                  completion.complete(value, terminal);
-                }
-              });
-              return;
-            }
+          @Override
+          public Session session() {
+            return completion.session();
           }
-          completion.complete(Collections.emptyList());
-        }
+          @Override
+          public String rawLine() {
+            return line;
+          }
+          @Override
+          public List<CliToken> lineTokens() {
+            return newTokens;
+          }
+          @Override
+          public void complete(List<String> candidates) {
+            completion.complete(candidates);
+          }
+          @Override
+          public void complete(String value, boolean terminal) {
+            completion.complete(value, terminal);
+          }
+        });
+        return;
       }
+      completion.complete(Collections.emptyList());
     } else {
-      String prefix = tokens.size() > 0 ? tokens.getFirst().value() : "";
-      List<String> names = resolvers.stream().
-          flatMap(res -> res.commands().stream()).
-          map(Command::name).
-          filter(name -> name.startsWith(prefix)).
-          distinct().
-          collect(Collectors.toList());
-      if (names.size() == 1) {
-        completion.complete(names.get(0).substring(prefix.length()), true);
+      String prefix = index < size ? tokens.get(index).value() : "";
+      index();
+      List<String> candidates;
+      String commonPrefix;
+      synchronized (names) {
+        candidates = names.candidates(prefix);
+        commonPrefix = names.commonPrefix(prefix);
+      }
+      if (candidates.size() == 1) {
+        completion.complete(candidates.get(0).substring(prefix.length()), true);
       } else {
-        String commonPrefix = Completion.findLongestCommonPrefix(names);
-        if (commonPrefix.length() > prefix.length()) {
+        if (commonPrefix != null && commonPrefix.length() > prefix.length()) {
           completion.complete(commonPrefix.substring(prefix.length()), false);
         } else {
-          completion.complete(names);
+          completion.complete(candidates);
         }
       }
     }
@@ -39,40 +39,114 @@ import io.vertx.ext.shell.system.JobController;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 public class JobControllerImpl implements JobController {
 
-  Handler<Job> foregroundUpdatedHandler;
-  Job foregroundJob; // The currently running job
-  private final SortedMap<Integer, JobImpl> jobs = new TreeMap<>();
+  volatile Handler<Job> foregroundUpdatedHandler;
+  final AtomicReference<JobImpl> foregroundJob = new AtomicReference<>(); // The currently running job
+  private final ConcurrentSkipListMap<Integer, JobImpl> jobs = new ConcurrentSkipListMap<>();
+  private volatile Set<Job> snapshot = Collections.emptySet(); // Immutable view of the jobs ordered by id
+  private JobImpl recent; // Head of the jobs out of the foreground, the most recently stopped or backgrounded first
   private boolean closed = false;
+  volatile int outputCapture; // The capacity of the output capture of background jobs, 0 to disable
 
   public JobControllerImpl() {
   }
 
   public Job foregroundJob() {
-    return foregroundJob;
+    return foregroundJob.get();
   }
 
-  public synchronized Set<Job> jobs() {
-    return new HashSet<>(jobs.values());
+  public Set<Job> jobs() {
+    return snapshot;
   }
 
-  public synchronized Job getJob(int id) {
+  public Job getJob(int id) {
     return jobs.get(id);
   }
 
   synchronized boolean removeJob(int id) {
-    return jobs.remove(id) != null;
+    JobImpl job = jobs.remove(id);
+    if (job != null) {
+      unlinkRecent(job);
+      updateSnapshot();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @return the current job, i.e the job out of the foreground that was stopped or sent to background last
+   */
+  public synchronized Job currentJob() {
+    return recent;
+  }
+
+  /**
+   * @return the job that was current before the current job
+   */
+  public synchronized Job previousJob() {
+    return recent != null ? recent.recentNext : null;
+  }
+
+  /**
+   * Make the job the current job.
+   */
+  synchronized void pushRecent(JobImpl job) {
+    if (jobs.get(job.id) != job) {
+      return;
+    }
+    unlinkRecent(job);
+    job.recentNext = recent;
+    if (recent != null) {
+      recent.recentPrev = job;
+    }
+    recent = job;
+  }
+
+  /**
+   * Remove the job from the current jobs, when it goes to foreground.
+   */
+  synchronized void removeRecent(JobImpl job) {
+    unlinkRecent(job);
+  }
+
+  private void unlinkRecent(JobImpl job) {
+    if (recent == job) {
+      recent = job.recentNext;
+    } else if (job.recentPrev != null) {
+      job.recentPrev.recentNext = job.recentNext;
+    } else {
+      return;
+    }
+    if (job.recentNext != null) {
+      job.recentNext.recentPrev = job.recentPrev;
+    }
+    job.recentPrev = null;
+    job.recentNext = null;
+  }
+
+  private void updateSnapshot() {
+    snapshot = Collections.unmodifiableSet(new LinkedHashSet<>(jobs.values()));
+  }
+
+  /**
+   * Capture the output of the jobs running in background in a buffer of {@code capacity} chars instead of writing
+   * it to the tty, the output is written to the tty when the job goes back to foreground.
+   *
+   * @param capacity the capacity or {@code 0} to disable the capture
+   */
+  public void setOutputCapture(int capacity) {
+    outputCapture = capacity;
   }
 
   public JobController foregroundUpdatedHandler(Handler<Job> handler) {
@@ -81,10 +155,11 @@ public class JobControllerImpl implements JobController {
   }
 
   @Override
-  public Job createJob(Process process, String line) {
+  public synchronized Job createJob(Process process, String line) {
     int id = jobs.isEmpty() ? 1 : jobs.lastKey() + 1;
     JobImpl job = new JobImpl(id, this, process, line);
     jobs.put(id, job);
+    updateSnapshot();
     return job;
   }
 
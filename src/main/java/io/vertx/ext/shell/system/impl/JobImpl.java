@@ -35,11 +35,14 @@ package io.vertx.ext.shell.system.impl;
 import io.vertx.core.Handler;
 
 import io.vertx.core.Promise;
+import io.vertx.ext.shell.command.impl.ProcessImpl;
+import io.vertx.ext.shell.command.impl.ProcessMetrics;
 import io.vertx.ext.shell.session.Session;
 import io.vertx.ext.shell.system.Process;
 import io.vertx.ext.shell.term.Tty;
 import io.vertx.ext.shell.system.Job;
 import io.vertx.ext.shell.system.ExecStatus;
+import io.vertx.ext.shell.system.JobMetrics;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -52,10 +55,14 @@ public class JobImpl implements Job {
   final String line;
   private volatile ExecStatus actualStatus; // Used internally for testing only
   volatile long lastStopped; // When the job was last stopped
+  JobImpl recentPrev; // Links of the current jobs list, guarded by the controller
+  JobImpl recentNext;
   volatile Tty tty;
+  volatile OutputCapture capture;
   volatile Session session;
   volatile Handler<ExecStatus> statusUpdateHandler;
   final Promise<Void> terminatePromise;
+  final JobMetrics metrics;
 
   JobImpl(int id, JobControllerImpl controller, Process process, String line) {
     this.id = id;
@@ -63,13 +70,11 @@ public class JobImpl implements Job {
     this.process = process;
     this.line = line;
     this.terminatePromise = Promise.promise();
+    this.metrics = process instanceof ProcessImpl ? ((ProcessImpl) process).metrics() : new ProcessMetrics();
 
     process.terminatedHandler(exitCode -> {
-      if (controller.foregroundJob == this) {
-        controller.foregroundJob = null;
-        if (controller.foregroundUpdatedHandler != null) {
-          controller.foregroundUpdatedHandler.handle(null);
-        }
+      if (controller.foregroundJob.compareAndSet(this, null)) {
+        foregroundUpdated(null);
       }
       controller.removeJob(JobImpl.this.id);
       if (statusUpdateHandler != null) {
@@ -102,18 +107,27 @@ public class JobImpl implements Job {
 
   @Override
   public Job resume(boolean foreground) {
-    if (controller.foregroundJob != null) {
+    if (controller.foregroundJob.get() != null) {
       throw new IllegalStateException();
     }
+    OutputCapture capture = this.capture;
+    if (capture != null) {
+      if (foreground) {
+        capture.replay();
+      } else {
+        capture.capture();
+      }
+    }
     try {
       process.resume(foreground, v -> actualStatus = ExecStatus.RUNNING);
     } catch (IllegalStateException ignore) {
     }
     if (foreground) {
-      controller.foregroundJob = this;
-      if (controller.foregroundUpdatedHandler != null) {
-        controller.foregroundUpdatedHandler.handle(this);
+      if (!controller.foregroundJob.compareAndSet(null, this)) {
+        throw new IllegalStateException();
       }
+      controller.removeRecent(this);
+      foregroundUpdated(this);
     }
     if (statusUpdateHandler != null) {
       statusUpdateHandler.handle(process.status());
@@ -128,11 +142,10 @@ public class JobImpl implements Job {
     } catch (IllegalStateException ignore) {
       return this;
     }
-    if (controller.foregroundJob == this) {
-      controller.foregroundJob = null;
-      if (controller.foregroundUpdatedHandler != null) {
-        controller.foregroundUpdatedHandler.handle(null);
-      }
+    lastStopped = System.currentTimeMillis();
+    controller.pushRecent(this);
+    if (controller.foregroundJob.compareAndSet(this, null)) {
+      foregroundUpdated(null);
     }
     if (statusUpdateHandler != null) {
       statusUpdateHandler.handle(process.status());
@@ -158,6 +171,11 @@ public class JobImpl implements Job {
     return lastStopped;
   }
 
+  @Override
+  public JobMetrics metrics() {
+    return metrics;
+  }
+
   public ExecStatus status() {
     return process.status();
   }
@@ -168,8 +186,12 @@ public class JobImpl implements Job {
 
   @Override
   public Job toBackground() {
-    if (controller.foregroundJob == this) {
-      controller.foregroundJob = null;
+    if (controller.foregroundJob.compareAndSet(this, null)) {
+      controller.pushRecent(this);
+      OutputCapture capture = this.capture;
+      if (capture != null) {
+        capture.capture();
+      }
       process.toBackground();
       if (statusUpdateHandler != null) {
         statusUpdateHandler.handle(process.status());
@@ -180,12 +202,14 @@ public class JobImpl implements Job {
 
   @Override
   public Job toForeground() {
-    if (controller.foregroundJob != null) {
+    if (!controller.foregroundJob.compareAndSet(null, this)) {
       throw new IllegalStateException();
     }
-    controller.foregroundJob = this;
-    if (controller.foregroundUpdatedHandler != null) {
-      controller.foregroundUpdatedHandler.handle(this);
+    controller.removeRecent(this);
+    foregroundUpdated(this);
+    OutputCapture capture = this.capture;
+    if (capture != null) {
+      capture.replay();
     }
     process.toForeground();
     if (statusUpdateHandler != null) {
@@ -201,16 +225,29 @@ public class JobImpl implements Job {
 
   @Override
   public Job setTty(Tty tty) {
-    this.tty = tty;
+    int capacity = controller.outputCapture;
+    if (capacity > 0) {
+      OutputCapture capture = new OutputCapture(tty, capacity);
+      this.capture = capture;
+      this.tty = capture;
+    } else {
+      this.capture = null;
+      this.tty = tty;
+    }
     return this;
   }
 
+  /**
+   * @return the capture of the output while in background or null when the output is not captured
+   */
+  public OutputCapture outputCapture() {
+    return capture;
+  }
+
   @Override
   public Job run() {
-    controller.foregroundJob = this;
-    if (controller.foregroundUpdatedHandler != null) {
-      controller.foregroundUpdatedHandler.handle(this);
-    }
+    controller.foregroundJob.set(this);
+    foregroundUpdated(this);
     actualStatus = ExecStatus.RUNNING;
     if (statusUpdateHandler != null) {
       statusUpdateHandler.handle(ExecStatus.RUNNING);
@@ -220,4 +257,11 @@ public class JobImpl implements Job {
     process.run();
     return this;
   }
+
+  private void foregroundUpdated(Job job) {
+    Handler<Job> handler = controller.foregroundUpdatedHandler;
+    if (handler != null) {
+      handler.handle(job);
+    }
+  }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.system.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.term.Tty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tty of a job capturing the output in a bounded buffer while the job runs in background, the captured
+ * output is written to the actual tty when the job goes back to foreground.<p/>
+ *
+ * When the buffer is full the oldest output is discarded so the buffer keeps the tail of the output.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutputCapture implements Tty {
+
+  private final Tty tty;
+  private final int capacity;
+  private final ArrayDeque<String> chunks = new ArrayDeque<>();
+  private int size;
+  private long discarded;
+  private boolean capturing;
+
+  public OutputCapture(Tty tty, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Invalid capacity " + capacity);
+    }
+    this.tty = tty;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Start capturing the output.
+   */
+  public synchronized void capture() {
+    capturing = true;
+  }
+
+  /**
+   * Stop capturing the output, the captured output is written to the tty.
+   */
+  public void replay() {
+    String captured;
+    synchronized (this) {
+      if (!capturing) {
+        return;
+      }
+      capturing = false;
+      captured = content();
+      chunks.clear();
+      size = 0;
+      if (captured.length() > 0) {
+        // Write under the lock so the process output cannot overtake the replay
+        if (discarded > 0) {
+          tty.write("... " + discarded + " chars discarded ...\n");
+        }
+        tty.write(captured);
+      }
+      discarded = 0;
+    }
+  }
+
+  /**
+   * @return whether the output is currently captured
+   */
+  public synchronized boolean isCapturing() {
+    return capturing;
+  }
+
+  /**
+   * @return the number of chars discarded since the capture started
+   */
+  public synchronized long discarded() {
+    return discarded;
+  }
+
+  /**
+   * @return the captured output
+   */
+  public synchronized String content() {
+    StringBuilder sb = new StringBuilder(size);
+    chunks.forEach(sb::append);
+    return sb.toString();
+  }
+
+  /**
+   * @return the captured output lines
+   */
+  public List<String> lines() {
+    String content = content();
+    if (content.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> lines = new ArrayList<>(Arrays.asList(content.split("\n", -1)));
+    if (content.endsWith("\n")) {
+      lines.remove(lines.size() - 1);
+    }
+    return lines;
+  }
+
+  @Override
+  public String type() {
+    return tty.type();
+  }
+
+  @Override
+  public int width() {
+    return tty.width();
+  }
+
+  @Override
+  public int height() {
+    return tty.height();
+  }
+
+  @Override
+  public Tty stdinHandler(Handler<String> handler) {
+    tty.stdinHandler(handler);
+    return this;
+  }
+
+  @Override
+  public Tty resizehandler(Handler<Void> handler) {
+    tty.resizehandler(handler);
+    return this;
+  }
+
+  @Override
+  public Tty write(String data) {
+    synchronized (this) {
+      if (capturing) {
+        append(data);
+        return this;
+      }
+    }
+    tty.write(data);
+    return this;
+  }
+
+  @Override
+  public Tty write(Buffer data) {
+    synchronized (this) {
+      if (capturing) {
+        append(data.toString());
+        return this;
+      }
+    }
+    tty.write(data);
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    synchronized (this) {
+      if (capturing) {
+        return false;
+      }
+    }
+    return tty.writeQueueFull();
+  }
+
+  @Override
+  public Tty drainHandler(Handler<Void> handler) {
+    tty.drainHandler(handler);
+    return this;
+  }
+
+  private void append(String data) {
+    if (data.length() > capacity) {
+      discarded += data.length() - capacity;
+      data = data.substring(trim(data, data.length() - capacity));
+    }
+    chunks.add(data);
+    size += data.length();
+    while (size > capacity) {
+      String first = chunks.removeFirst();
+      int excess = size - capacity;
+      if (first.length() <= excess) {
+        size -= first.length();
+        discarded += first.length();
+      } else {
+        int from = trim(first, excess);
+        chunks.addFirst(first.substring(from));
+        size -= from;
+        discarded += from;
+      }
+    }
+  }
+
+  /**
+   * Avoid splitting a surrogate pair.
+   */
+  private static int trim(String s, int from) {
+    if (from < s.length() && Character.isLowSurrogate(s.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+}
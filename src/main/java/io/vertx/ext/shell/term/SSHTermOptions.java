@@ -57,6 +57,7 @@ public class SSHTermOptions {
   public static final int DEFAULT_PORT = NetServerOptions.DEFAULT_PORT;
   public static final String DEFAULT_DEFAULT_CHARSET = StandardCharsets.UTF_8.name();
   public static final String DEFAULT_INPUTRC = "/io/vertx/ext/shell/inputrc";
+  public static final boolean DEFAULT_EVENT_LOOP_GROUP = false;
 
   private String host;
   private int port;
@@ -64,12 +65,14 @@ public class SSHTermOptions {
   private JsonObject authOptions;
   private String defaultCharset;
   private String intputrc;
+  private boolean eventLoopGroup;
 
   public SSHTermOptions() {
     host = DEFAULT_HOST;
     port = DEFAULT_PORT;
     defaultCharset = DEFAULT_DEFAULT_CHARSET;
     intputrc = DEFAULT_INPUTRC;
+    eventLoopGroup = DEFAULT_EVENT_LOOP_GROUP;
   }
 
   public SSHTermOptions(SSHTermOptions that) {
@@ -79,6 +82,7 @@ public class SSHTermOptions {
     this.authOptions = that.authOptions != null ? that.authOptions.copy() : null;
     this.defaultCharset = that.defaultCharset;
     this.intputrc = that.intputrc;
+    this.eventLoopGroup = that.eventLoopGroup;
   }
 
   public SSHTermOptions(JsonObject json) {
@@ -208,4 +212,25 @@ public class SSHTermOptions {
     this.intputrc = intputrc;
     return this;
   }
+
+  /**
+   * @return whether the sessions are spread across the Vert.x event-loop group
+   */
+  public boolean isEventLoopGroup() {
+    return eventLoopGroup;
+  }
+
+  /**
+   * Set whether the SSH server uses the Vert.x event-loop group: the I/O of the connections is spread across the
+   * event loops and each shell or exec session is assigned its own event-loop context, round-robin. Otherwise all
+   * the connections and sessions use the event loop of the context starting the server. When the server is started
+   * from a shell service with a dedicated event loop pool, the dedicated event loops are used instead.
+   *
+   * @param eventLoopGroup true to use the event-loop group
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SSHTermOptions setEventLoopGroup(boolean eventLoopGroup) {
+    this.eventLoopGroup = eventLoopGroup;
+    return this;
+  }
 }
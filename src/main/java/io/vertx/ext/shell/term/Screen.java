@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * A full screen canvas backed by a cell buffer sized from the terminal.<p/>
+ *
+ * Commands draw the next frame in the buffer and call {@link #render()}, the screen sends the cursor moves, style
+ * changes and characters that differ from the previous frame. Rendering is capped at {@link #setFrameRate(int) frame rate},
+ * the frames requested in between are merged into the next one.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public interface Screen {
+
+  /**
+   * The default frame rate, in frames per second.
+   */
+  int DEFAULT_FRAME_RATE = 20;
+
+  /**
+   * Bold style.
+   */
+  int BOLD = 1;
+
+  /**
+   * Underline style.
+   */
+  int UNDERLINE = 2;
+
+  /**
+   * Reverse video style.
+   */
+  int REVERSE = 4;
+
+  /**
+   * @param color the color between {@code 0} and {@code 255}
+   * @return the style for the foreground color
+   */
+  static int foreground(int color) {
+    return ((color & 0xFF) + 1) << 8;
+  }
+
+  /**
+   * @param color the color between {@code 0} and {@code 255}
+   * @return the style for the background color
+   */
+  static int background(int color) {
+    return ((color & 0xFF) + 1) << 17;
+  }
+
+  /**
+   * @return the screen width, updated when the terminal is resized
+   */
+  int width();
+
+  /**
+   * @return the screen height, updated when the terminal is resized
+   */
+  int height();
+
+  /**
+   * Set the maximum number of frames per second sent to the terminal.
+   *
+   * @param frameRate the frame rate
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  Screen setFrameRate(int frameRate);
+
+  /**
+   * Clear the buffer.
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  Screen clear();
+
+  /**
+   * Like {@link #write(int, int, String, int)} with the default style.
+   */
+  @Fluent
+  Screen write(int x, int y, String text);
+
+  /**
+   * Write text in the buffer, the text is clipped at the end of the line.
+   *
+   * @param x the column starting at {@code 0}
+   * @param y the row starting at {@code 0}
+   * @param text the text
+   * @param style the style, combining {@link #BOLD}, {@link #UNDERLINE}, {@link #REVERSE} and the colors
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  Screen write(int x, int y, String text, int style);
+
+  /**
+   * Send the buffer to the terminal, immediately or when the frame rate allows it.
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  Screen render();
+
+}
@@ -35,6 +35,7 @@ package io.vertx.ext.shell.term;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.shell.cli.Completion;
 import io.vertx.ext.shell.session.Session;
 
@@ -55,11 +56,32 @@ public interface Term extends Tty {
   @Override
   Term write(String data);
 
+  @Override
+  Term write(Buffer data);
+
+  @Override
+  Term drainHandler(Handler<Void> handler);
+
   /**
    * @return the last time this term received input
    */
   long lastAccessedTime();
 
+  /**
+   * @return the name of the user authenticated by the term server, or {@code null} when the term is not authenticated
+   */
+  String user();
+
+  /**
+   * Enable or disable the bracketed paste mode of the terminal. A text pasted in bracketed paste mode is delivered
+   * to the readline or the {@link #stdinHandler} as a single input event.
+   *
+   * @param enabled true to enable the mode
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  Term setBracketedPaste(boolean enabled);
+
   /**
    * Echo some text in the terminal, escaped if necessary.<p/>
    *
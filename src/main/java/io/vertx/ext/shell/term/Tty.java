@@ -35,6 +35,9 @@ package io.vertx.ext.shell.term;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * Provide interactions with the Shell TTY.
@@ -78,6 +81,40 @@ public interface Tty {
   @Fluent
   Tty write(String data);
 
+  /**
+   * Write UTF-8 encoded bytes to the standard output, the bytes are sent as is to the transport when possible
+   * avoiding an encoding pass.
+   *
+   * @param data the data to write
+   * @return this object
+   */
+  @Fluent
+  default Tty write(Buffer data) {
+    return write(data.toString(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This will return {@code true} if there are more bytes in the write queue than the transport of the tty can
+   * handle, a writer should then stop writing and wait until the {@link #drainHandler(Handler) drain handler} is
+   * called.
+   *
+   * @return true if the write queue is full
+   */
+  default boolean writeQueueFull() {
+    return false;
+  }
+
+  /**
+   * Set a drain handler, the handler is called when the write queue of the tty is ready to accept buffers again.
+   *
+   * @param handler the drain handler
+   * @return this object
+   */
+  @Fluent
+  default Tty drainHandler(Handler<Void> handler) {
+    return this;
+  }
+
   /**
    * Set a resize handler, the handler is called when the tty size changes.
    *
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term.impl;
+
+import io.termd.core.tty.TtyConnection;
+import io.termd.core.tty.TtyEvent;
+import io.termd.core.util.Vector;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A connection decoding the bracketed paste markers sent by the terminal, a pasted block is delivered to the stdin
+ * handler as a single event. The output produced by the stdin handler while it handles an input event, typically the
+ * echo, is sent as a single chunk.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class BracketedPasteConnection implements TtyConnection {
+
+  public static final String ENABLE = "\033[?2004h";
+  public static final String DISABLE = "\033[?2004l";
+
+  private static final int[] PASTE_START = {27, '[', '2', '0', '0', '~'};
+  private static final int[] PASTE_END = {27, '[', '2', '0', '1', '~'};
+
+  /**
+   * The delay after which a pending prefix of the start marker is delivered as regular input, e.g a lone escape key.
+   */
+  private static final long MARKER_TIMEOUT = 100;
+
+  private final TtyConnection conn;
+  private final Consumer<int[]> stdout = this::writeOutput;
+  private final Consumer<int[]> stdin = this::readInput;
+  private volatile Consumer<int[]> stdinHandler;
+
+  // Input state, accessed from the connection thread only
+  private boolean pasting;
+  private int[] paste = new int[64];
+  private int pasteLength;
+  private int[] carry;
+
+  // Output produced by the thread delivering an input event
+  private Thread batchThread;
+  private int[] batch = new int[64];
+  private int batchLength;
+
+  public BracketedPasteConnection(TtyConnection conn) {
+    this.conn = conn;
+  }
+
+  /**
+   * Send the output batched by the current thread.
+   */
+  public void flush() {
+    if (batchThread == Thread.currentThread() && batchLength > 0) {
+      int len = batchLength;
+      batchLength = 0;
+      send(batch, 0, len);
+    }
+  }
+
+  /**
+   * Write a range of code points without retaining the array.
+   *
+   * @param codePoints the code points
+   * @param offset the range offset
+   * @param length the range length
+   */
+  public void writeOutput(int[] codePoints, int offset, int length) {
+    if (batchThread == Thread.currentThread()) {
+      batch(codePoints, offset, length);
+    } else {
+      send(codePoints, offset, length);
+    }
+  }
+
+  @Override
+  public Consumer<int[]> getStdinHandler() {
+    return stdinHandler;
+  }
+
+  @Override
+  public void setStdinHandler(Consumer<int[]> handler) {
+    stdinHandler = handler;
+    conn.setStdinHandler(handler != null ? stdin : null);
+  }
+
+  @Override
+  public Consumer<int[]> stdoutHandler() {
+    return stdout;
+  }
+
+  private void writeOutput(int[] codePoints) {
+    // Only the delivering thread can observe itself as batch thread
+    if (batchThread == Thread.currentThread()) {
+      batch(codePoints, 0, codePoints.length);
+    } else {
+      conn.stdoutHandler().accept(codePoints);
+    }
+  }
+
+  private void batch(int[] codePoints, int offset, int length) {
+    if (batchLength + length > batch.length) {
+      batch = Arrays.copyOf(batch, Math.max(batch.length * 2, batchLength + length));
+    }
+    System.arraycopy(codePoints, offset, batch, batchLength, length);
+    batchLength += length;
+  }
+
+  private void send(int[] codePoints, int offset, int length) {
+    // The callers reuse their arrays, the downstream handler gets its own copy
+    conn.stdoutHandler().accept(Arrays.copyOfRange(codePoints, offset, offset + length));
+  }
+
+  private void readInput(int[] data) {
+    if (carry != null) {
+      int[] tmp = Arrays.copyOf(carry, carry.length + data.length);
+      System.arraycopy(data, 0, tmp, carry.length, data.length);
+      data = tmp;
+      carry = null;
+    }
+    int from = 0;
+    while (from < data.length) {
+      int[] marker = pasting ? PASTE_END : PASTE_START;
+      int idx = indexOf(data, from, marker);
+      int to = idx >= 0 ? idx : data.length;
+      if (idx < 0) {
+        // The marker may be split across reads
+        int keep = partialMarker(data, from, marker);
+        if (keep > 0) {
+          to -= keep;
+          carry = Arrays.copyOfRange(data, to, data.length);
+          if (!pasting) {
+            scheduleCarry(carry);
+          }
+        }
+      }
+      if (pasting) {
+        appendPaste(data, from, to);
+      } else if (to > from) {
+        deliver(from == 0 && to == data.length ? data : Arrays.copyOfRange(data, from, to));
+      }
+      if (idx < 0) {
+        break;
+      }
+      from = idx + marker.length;
+      if (pasting) {
+        pasting = false;
+        int[] block = Arrays.copyOf(paste, pasteLength);
+        pasteLength = 0;
+        if (paste.length > 64 * 1024) {
+          paste = new int[64];
+        }
+        if (block.length > 0) {
+          deliver(block);
+        }
+      } else {
+        pasting = true;
+      }
+    }
+  }
+
+  private void scheduleCarry(int[] pending) {
+    conn.schedule(() -> {
+      if (carry == pending) {
+        carry = null;
+        deliver(pending);
+      }
+    }, MARKER_TIMEOUT, TimeUnit.MILLISECONDS);
+  }
+
+  private void deliver(int[] codePoints) {
+    Consumer<int[]> handler = stdinHandler;
+    if (handler != null) {
+      batchThread = Thread.currentThread();
+      try {
+        handler.accept(codePoints);
+      } finally {
+        flush();
+        batchThread = null;
+        if (batch.length > 64 * 1024) {
+          batch = new int[64];
+        }
+      }
+    }
+  }
+
+  private void appendPaste(int[] data, int from, int to) {
+    int len = to - from;
+    if (pasteLength + len > paste.length) {
+      paste = Arrays.copyOf(paste, Math.max(paste.length * 2, pasteLength + len));
+    }
+    System.arraycopy(data, from, paste, pasteLength, len);
+    pasteLength += len;
+  }
+
+  private static int indexOf(int[] data, int from, int[] marker) {
+    int last = data.length - marker.length;
+    outer:
+    for (int i = from;i <= last;i++) {
+      for (int j = 0;j < marker.length;j++) {
+        if (data[i + j] != marker[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  /**
+   * @return the length of the longest suffix of {@code data} that is a prefix of the marker
+   */
+  private static int partialMarker(int[] data, int from, int[] marker) {
+    for (int len = Math.min(marker.length - 1, data.length - from);len > 0;len--) {
+      int start = data.length - len;
+      boolean match = true;
+      for (int j = 0;j < len && match;j++) {
+        match = data[start + j] == marker[j];
+      }
+      if (match) {
+        return len;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public Charset inputCharset() {
+    return conn.inputCharset();
+  }
+
+  @Override
+  public Charset outputCharset() {
+    return conn.outputCharset();
+  }
+
+  @Override
+  public long lastAccessedTime() {
+    return conn.lastAccessedTime();
+  }
+
+  @Override
+  public String terminalType() {
+    return conn.terminalType();
+  }
+
+  @Override
+  public Vector size() {
+    return conn.size();
+  }
+
+  @Override
+  public Consumer<String> getTerminalTypeHandler() {
+    return conn.getTerminalTypeHandler();
+  }
+
+  @Override
+  public void setTerminalTypeHandler(Consumer<String> handler) {
+    conn.setTerminalTypeHandler(handler);
+  }
+
+  @Override
+  public Consumer<Vector> getSizeHandler() {
+    return conn.getSizeHandler();
+  }
+
+  @Override
+  public void setSizeHandler(Consumer<Vector> handler) {
+    conn.setSizeHandler(handler);
+  }
+
+  @Override
+  public BiConsumer<TtyEvent, Integer> getEventHandler() {
+    return conn.getEventHandler();
+  }
+
+  @Override
+  public void setEventHandler(BiConsumer<TtyEvent, Integer> handler) {
+    conn.setEventHandler(handler);
+  }
+
+  @Override
+  public Consumer<Void> getCloseHandler() {
+    return conn.getCloseHandler();
+  }
+
+  @Override
+  public void setCloseHandler(Consumer<Void> handler) {
+    conn.setCloseHandler(handler);
+  }
+
+  @Override
+  public void close() {
+    conn.close();
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    conn.execute(task);
+  }
+
+  @Override
+  public void schedule(Runnable task, long delay, TimeUnit unit) {
+    conn.schedule(task, delay, unit);
+  }
+}
@@ -80,4 +80,51 @@ public class Helper {
     }
     return null;
   }
+
+  /**
+   * @return the number of line feeds in {@code s}
+   */
+  public static int lines(String s) {
+    int count = 0;
+    for (int i = 0;i < s.length();i++) {
+      if (s.charAt(i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of line feeds in {@code buffer}
+   */
+  public static int lines(Buffer buffer) {
+    int count = 0;
+    for (int i = 0;i < buffer.length();i++) {
+      if (buffer.getByte(i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the length of {@code s} encoded in UTF-8
+   */
+  public static int utf8Length(String s) {
+    int len = 0;
+    for (int i = 0;i < s.length();i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        len++;
+      } else if (c < 0x800) {
+        len += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+        len += 4;
+        i++;
+      } else {
+        len += 3;
+      }
+    }
+    return len;
+  }
 }
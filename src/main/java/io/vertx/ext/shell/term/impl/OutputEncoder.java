@@ -0,0 +1,224 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.term.impl;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the terminal output to the bytes sent on the transport, the encoder and its byte buffer are reused across
+ * writes. Line feeds are translated to carriage return line feed like the termd output mode does.<p/>
+ *
+ * UTF-8 is encoded directly from the chars of the string, other charsets use a cached {@link CharsetEncoder}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutputEncoder {
+
+  private static final byte IAC = (byte) 0xFF;
+  private static final int INITIAL_SIZE = 512;
+  private static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+  private final boolean escapeIac;
+  private Charset charset;
+  private CharsetEncoder encoder;
+  private byte[] bytes = new byte[INITIAL_SIZE];
+
+  /**
+   * @param escapeIac whether the telnet IAC byte must be escaped
+   */
+  public OutputEncoder(boolean escapeIac) {
+    this.escapeIac = escapeIac;
+  }
+
+  /**
+   * Encode a string.
+   *
+   * @param s the string to encode
+   * @param charset the charset to use
+   * @return the encoded buffer
+   */
+  public synchronized Buffer encode(String s, Charset charset) {
+    int len;
+    if (charset.equals(StandardCharsets.UTF_8)) {
+      len = encodeUtf8(s);
+    } else {
+      len = encode(s.indexOf('\n') >= 0 ? s.replace("\n", "\r\n") : s, encoder(charset));
+    }
+    Buffer buffer = Buffer.buffer(len).appendBytes(bytes, 0, len);
+    if (bytes.length > MAX_RETAINED_SIZE) {
+      // Don't retain the memory of a large write
+      bytes = new byte[INITIAL_SIZE];
+    }
+    return buffer;
+  }
+
+  /**
+   * Translate UTF-8 encoded bytes for the transport.
+   *
+   * @param data the bytes to translate
+   * @return the translated buffer, or {@code data} when no translation is needed
+   */
+  public Buffer translate(Buffer data) {
+    int len = data.length();
+    int extra = 0;
+    for (int i = 0;i < len;i++) {
+      byte b = data.getByte(i);
+      if (b == '\n' || (escapeIac && b == IAC)) {
+        extra++;
+      }
+    }
+    if (extra == 0) {
+      return data;
+    }
+    Buffer translated = Buffer.buffer(len + extra);
+    for (int i = 0;i < len;i++) {
+      byte b = data.getByte(i);
+      if (b == '\n') {
+        translated.appendByte((byte) '\r');
+      } else if (escapeIac && b == IAC) {
+        translated.appendByte(IAC);
+      }
+      translated.appendByte(b);
+    }
+    return translated;
+  }
+
+  private int encodeUtf8(String s) {
+    int len = s.length();
+    byte[] dst = ensureCapacity(len * 3);
+    int pos = 0;
+    for (int i = 0;i < len;i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        if (c == '\n') {
+          dst[pos++] = '\r';
+        }
+        dst[pos++] = (byte) c;
+      } else if (c < 0x800) {
+        dst[pos++] = (byte) (0xC0 | (c >> 6));
+        dst[pos++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        dst[pos++] = (byte) (0xF0 | (cp >> 18));
+        dst[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        dst[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        dst[pos++] = (byte) (0x80 | (cp & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // Malformed
+        dst[pos++] = '?';
+      } else {
+        dst[pos++] = (byte) (0xE0 | (c >> 12));
+        dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        dst[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return pos;
+  }
+
+  private int encode(String s, CharsetEncoder encoder) {
+    CharBuffer in = CharBuffer.wrap(s);
+    ByteBuffer out = ByteBuffer.wrap(ensureCapacity((int) (s.length() * encoder.maxBytesPerChar()) + 1));
+    encoder.reset();
+    CoderResult result = encoder.encode(in, out, true);
+    while (result.isOverflow()) {
+      out = grow(out);
+      result = encoder.encode(in, out, true);
+    }
+    while (encoder.flush(out).isOverflow()) {
+      out = grow(out);
+    }
+    int len = out.position();
+    if (escapeIac) {
+      len = escapeIac(len);
+    }
+    return len;
+  }
+
+  private int escapeIac(int len) {
+    int count = 0;
+    for (int i = 0;i < len;i++) {
+      if (bytes[i] == IAC) {
+        count++;
+      }
+    }
+    if (count > 0) {
+      byte[] src = bytes;
+      byte[] dst = new byte[len + count];
+      int pos = 0;
+      for (int i = 0;i < len;i++) {
+        if (src[i] == IAC) {
+          dst[pos++] = IAC;
+        }
+        dst[pos++] = src[i];
+      }
+      bytes = dst;
+      len = pos;
+    }
+    return len;
+  }
+
+  private ByteBuffer grow(ByteBuffer out) {
+    byte[] tmp = new byte[bytes.length * 2];
+    System.arraycopy(bytes, 0, tmp, 0, out.position());
+    ByteBuffer grown = ByteBuffer.wrap(tmp);
+    grown.position(out.position());
+    bytes = tmp;
+    return grown;
+  }
+
+  private byte[] ensureCapacity(int capacity) {
+    if (bytes.length < capacity) {
+      bytes = new byte[Math.max(capacity, bytes.length * 2)];
+    }
+    return bytes;
+  }
+
+  private CharsetEncoder encoder(Charset charset) {
+    if (!charset.equals(this.charset)) {
+      this.charset = charset;
+      this.encoder = charset.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    return encoder;
+  }
+}
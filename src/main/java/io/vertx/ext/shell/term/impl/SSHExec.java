@@ -43,16 +43,37 @@ public class SSHExec implements Tty {
 
   private final String command;
   private final TtyConnection conn;
+  private final String user;
 
-  SSHExec(String command, TtyConnection conn) {
+  SSHExec(String command, TtyConnection conn, String user) {
     this.command = command;
     this.conn = conn;
+    this.user = user;
   }
 
   public String command() {
     return command;
   }
 
+  /**
+   * @return the authenticated user
+   */
+  public String user() {
+    return user;
+  }
+
+  /**
+   * Set a handler called when the connection is closed.
+   */
+  public SSHExec closeHandler(Handler<Void> handler) {
+    if (handler != null) {
+      conn.setCloseHandler(v -> handler.handle(null));
+    } else {
+      conn.setCloseHandler(null);
+    }
+    return this;
+  }
+
   public void end(int exit) {
     conn.close(exit);
   }
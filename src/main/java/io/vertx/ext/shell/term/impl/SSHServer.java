@@ -32,11 +32,15 @@
 
 package io.vertx.ext.shell.term.impl;
 
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
 import io.termd.core.readline.Keymap;
 import io.termd.core.ssh.TtyCommand;
 import io.vertx.core.*;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.net.*;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
@@ -59,6 +63,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.apache.sshd.server.SshServer.DEFAULT_SERVICE_FACTORIES;
 
@@ -172,18 +177,33 @@ public class SSHServer implements TermServer {
           throw new VertxException("Could not load inputrc from " + options.getIntputrc());
         }
         Keymap keymap = new Keymap(new ByteArrayInputStream(inputrc.getBytes()));
-        TermConnectionHandler connectionHandler = new TermConnectionHandler(vertx, keymap, termHandler, listenContext);
+        // Each session gets an event-loop context on the loop of its channel or shares the listen context
+        EventLoopGroup ioGroup;
+        Supplier<ContextInternal> sessionContexts;
+        if (options.isEventLoopGroup()) {
+          // The group of the listen context, i.e the Vert.x event loops or the ones dedicated to the shell
+          VertxInternal vertxInternal = (VertxInternal) vertx;
+          ContextInternal context = listenContext;
+          EventLoopGroup group = context.nettyEventLoop().parent();
+          ioGroup = group;
+          sessionContexts = () -> vertxInternal.createEventLoopContext(channelEventLoop(group), context.workerPool(), context.classLoader());
+        } else {
+          ContextInternal context = listenContext;
+          ioGroup = context.nettyEventLoop();
+          sessionContexts = () -> context;
+        }
+        TermConnectionHandler connectionHandler = new TermConnectionHandler(vertx, keymap, termHandler, sessionContexts);
 
         nativeServer = SshServer.setUpDefaultServer();
-        nativeServer.setShellFactory(channel -> new TtyCommand(defaultCharset, connectionHandler::handle));
+        nativeServer.setShellFactory(channel -> new TtyCommand(defaultCharset, conn -> connectionHandler.handle(conn, channel.getSession().getUsername())));
         Handler<SSHExec> execHandler = this.execHandler;
         if (execHandler != null) {
-          nativeServer.setCommandFactory((channel, command) -> new TtyCommand(defaultCharset, conn -> listenContext.dispatch(new SSHExec(command, conn), execHandler)));
+          nativeServer.setCommandFactory((channel, command) -> new TtyCommand(defaultCharset, conn -> sessionContexts.get().dispatch(new SSHExec(command, conn, channel.getSession().getUsername()), execHandler)));
         }
         nativeServer.setHost(options.getHost());
         nativeServer.setPort(options.getPort());
         nativeServer.setKeyPairProvider(provider);
-        nativeServer.setIoServiceFactoryFactory(new org.apache.sshd.netty.NettyIoServiceFactoryFactory(listenContext.nettyEventLoop()));
+        nativeServer.setIoServiceFactoryFactory(new org.apache.sshd.netty.NettyIoServiceFactoryFactory(ioGroup));
         nativeServer.setServiceFactories(DEFAULT_SERVICE_FACTORIES);
 
         //
@@ -240,4 +260,18 @@ public class SSHServer implements TermServer {
   public Future<Void> close() {
     return Future.future(this::close);
   }
+
+  /**
+   * The shell and exec commands are started by the SSH channel read, i.e on the channel event loop.
+   *
+   * @return the loop of the group running the current thread, otherwise the next loop of the group
+   */
+  private static EventLoop channelEventLoop(EventLoopGroup group) {
+    for (EventExecutor executor : group) {
+      if (executor.inEventLoop()) {
+        return (EventLoop) executor;
+      }
+    }
+    return group.next();
+  }
 }
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.term.Screen;
+import io.vertx.ext.shell.term.Tty;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * A screen keeping the cells of the last frame sent to the terminal to compute the next frame as a diff.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ScreenImpl implements Screen {
+
+  private static final int BLANK = ' ';
+
+  /**
+   * Rewriting up to this number of unchanged cells is cheaper than moving the cursor.
+   */
+  private static final int MAX_GAP = 4;
+
+  private final Vertx vertx;
+  private final Context context;
+  private final Tty tty;
+  private final Predicate<String> output;
+  private int width;
+  private int height;
+  private int[] chars;
+  private int[] styles;
+  private int[] frontChars;
+  private int[] frontStyles;
+  private boolean invalid;
+  private boolean dirty;
+  private long period;
+  private long lastFrame;
+  private long timerID = -1;
+  private boolean closed;
+
+  /**
+   * @param vertx the vertx instance
+   * @param context the context running the frame rendering
+   * @param tty the tty providing the size
+   * @param output sends a frame to the terminal, returns {@code false} when the frame could not be sent
+   */
+  public ScreenImpl(Vertx vertx, Context context, Tty tty, Predicate<String> output) {
+    this.vertx = vertx;
+    this.context = context;
+    this.tty = tty;
+    this.output = output;
+    this.period = TimeUnit.SECONDS.toNanos(1) / DEFAULT_FRAME_RATE;
+    this.lastFrame = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+    allocate(tty.width(), tty.height());
+  }
+
+  @Override
+  public synchronized int width() {
+    return width;
+  }
+
+  @Override
+  public synchronized int height() {
+    return height;
+  }
+
+  @Override
+  public synchronized Screen setFrameRate(int frameRate) {
+    if (frameRate <= 0) {
+      throw new IllegalArgumentException("Invalid frame rate " + frameRate);
+    }
+    period = TimeUnit.SECONDS.toNanos(1) / frameRate;
+    return this;
+  }
+
+  @Override
+  public synchronized Screen clear() {
+    Arrays.fill(chars, BLANK);
+    Arrays.fill(styles, 0);
+    return this;
+  }
+
+  @Override
+  public Screen write(int x, int y, String text) {
+    return write(x, y, text, 0);
+  }
+
+  @Override
+  public synchronized Screen write(int x, int y, String text, int style) {
+    if (y < 0 || y >= height) {
+      return this;
+    }
+    int row = y * width;
+    for (int i = 0;i < text.length() && x < width;x++) {
+      int cp = text.codePointAt(i);
+      i += Character.charCount(cp);
+      if (x >= 0) {
+        chars[row + x] = cp < 32 || cp == 127 ? BLANK : cp;
+        styles[row + x] = style;
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Screen render() {
+    synchronized (this) {
+      if (closed) {
+        return this;
+      }
+      dirty = true;
+      if (timerID != -1) {
+        return this;
+      }
+      long delay = lastFrame + period - System.nanoTime();
+      if (delay > 0) {
+        timerID = vertx.setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(delay)), id -> context.runOnContext(v -> {
+          synchronized (ScreenImpl.this) {
+            timerID = -1;
+          }
+          flush();
+        }));
+        return this;
+      }
+    }
+    flush();
+    return this;
+  }
+
+  /**
+   * Resize the buffer to the tty size and redraw the screen.
+   */
+  public void resize() {
+    synchronized (this) {
+      allocate(tty.width(), tty.height());
+    }
+    render();
+  }
+
+  /**
+   * Redraw the whole screen with the next frame.
+   */
+  public synchronized void invalidate() {
+    invalid = true;
+  }
+
+  /**
+   * Stop rendering frames.
+   */
+  public synchronized void close() {
+    closed = true;
+    if (timerID != -1) {
+      vertx.cancelTimer(timerID);
+      timerID = -1;
+    }
+  }
+
+  private void flush() {
+    String frame;
+    synchronized (this) {
+      if (!dirty || closed) {
+        return;
+      }
+      dirty = false;
+      lastFrame = System.nanoTime();
+      frame = diff();
+    }
+    if (frame.length() > 0 && !output.test(frame)) {
+      invalidate();
+    }
+  }
+
+  private void allocate(int w, int h) {
+    w = Math.max(0, w);
+    h = Math.max(0, h);
+    int[] newChars = new int[w * h];
+    int[] newStyles = new int[w * h];
+    Arrays.fill(newChars, BLANK);
+    for (int y = 0;y < Math.min(h, height);y++) {
+      System.arraycopy(chars, y * width, newChars, y * w, Math.min(w, width));
+      System.arraycopy(styles, y * width, newStyles, y * w, Math.min(w, width));
+    }
+    width = w;
+    height = h;
+    chars = newChars;
+    styles = newStyles;
+    frontChars = new int[w * h];
+    frontStyles = new int[w * h];
+    invalid = true;
+  }
+
+  private String diff() {
+    StringBuilder sb = new StringBuilder();
+    int style = -1;
+    if (invalid) {
+      invalid = false;
+      sb.append("\033[0m\033[2J");
+      style = 0;
+      Arrays.fill(frontChars, BLANK);
+      Arrays.fill(frontStyles, 0);
+    }
+    int cx = -1;
+    int cy = -1;
+    for (int y = 0;y < height;y++) {
+      int row = y * width;
+      for (int x = 0;x < width;x++) {
+        int i = row + x;
+        if (chars[i] == frontChars[i] && styles[i] == frontStyles[i]) {
+          continue;
+        }
+        if (cy == y && cx < x && x - cx <= MAX_GAP && hasStyle(row + cx, i, style)) {
+          for (int j = row + cx;j < i;j++) {
+            sb.appendCodePoint(chars[j]);
+          }
+        } else if (cy != y || cx != x) {
+          sb.append("\033[").append(y + 1).append(';').append(x + 1).append('H');
+        }
+        if (styles[i] != style) {
+          style = styles[i];
+          appendStyle(sb, style);
+        }
+        sb.appendCodePoint(chars[i]);
+        frontChars[i] = chars[i];
+        frontStyles[i] = styles[i];
+        cx = x + 1;
+        cy = y;
+      }
+    }
+    if (style > 0) {
+      sb.append("\033[0m");
+    }
+    return sb.toString();
+  }
+
+  private boolean hasStyle(int from, int to, int style) {
+    for (int i = from;i < to;i++) {
+      if (styles[i] != style) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void appendStyle(StringBuilder sb, int style) {
+    sb.append("\033[0");
+    if ((style & BOLD) != 0) {
+      sb.append(";1");
+    }
+    if ((style & UNDERLINE) != 0) {
+      sb.append(";4");
+    }
+    if ((style & REVERSE) != 0) {
+      sb.append(";7");
+    }
+    appendColor(sb, '3', (style >> 8) & 0x1FF);
+    appendColor(sb, '4', (style >> 17) & 0x1FF);
+    sb.append('m');
+  }
+
+  private static void appendColor(StringBuilder sb, char kind, int color) {
+    if (color > 0) {
+      color--;
+      sb.append(';').append(kind);
+      if (color < 8) {
+        sb.append(color);
+      } else {
+        sb.append("8;5;").append(color);
+      }
+    }
+  }
+}
@@ -35,6 +35,7 @@ package io.vertx.ext.shell.term.impl;
 import io.termd.core.readline.Keymap;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.ext.shell.term.SockJSTermHandler;
 import io.vertx.ext.shell.term.Term;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
@@ -67,15 +68,17 @@ public class SockJSTermHandlerImpl implements SockJSTermHandler {
   @Override
   public void handle(SockJSSocket socket) {
     if (termHandler != null) {
-      SockJSTtyConnection conn = new SockJSTtyConnection(charset, vertx.getOrCreateContext(), socket);
-      socket.handler(buf -> conn.writeToDecoder(buf.toString()));
+      // The context of the server instance accepting the connection
+      ContextInternal context = (ContextInternal) vertx.getOrCreateContext();
+      SockJSTtyConnection conn = new SockJSTtyConnection(charset, context, socket);
+      socket.handler(conn::readFrame);
       socket.endHandler(v -> {
         Consumer<Void> closeHandler = conn.getCloseHandler();
         if (closeHandler != null) {
           closeHandler.accept(null);
         }
       });
-      termHandler.handle(new TermImpl(vertx, keymap, conn));
+      termHandler.handle(new TermImpl(vertx, keymap, conn, context));
     } else {
       socket.close();
     }
@@ -34,28 +34,115 @@ package io.vertx.ext.shell.term.impl;
 
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.termd.core.http.HttpTtyConnection;
+import io.termd.core.io.BinaryDecoder;
+import io.termd.core.tty.TtyEvent;
+import io.termd.core.tty.TtyEventDecoder;
 import io.termd.core.util.Vector;
 import io.vertx.core.Context;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
+ * A SockJS tty connection.<p/>
+ *
+ * The default framing is the JSON framing of {@link HttpTtyConnection}. A raw WebSocket can negotiate a binary framing
+ * with the {@code framing=binary} query parameter: each inbound frame starts with an opcode byte, {@link #OP_DATA}
+ * followed by the UTF-8 input or {@link #OP_RESIZE} followed by the columns and rows as unsigned shorts. Output frames
+ * carry the encoded output without any framing.
+ *
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
-public class SockJSTtyConnection extends HttpTtyConnection {
+public class SockJSTtyConnection extends HttpTtyConnection implements VertxTtyConnection {
+
+  public static final byte OP_DATA = 0;
+  public static final byte OP_RESIZE = 1;
 
   private final Context context;
   private final SockJSSocket socket;
+  private final OutputEncoder encoder = new OutputEncoder(false);
+  private final TtyEventDecoder eventDecoder;
+  private final BinaryDecoder decoder;
+  private volatile long lastReadTime;
 
   public SockJSTtyConnection(Charset charset, Context context, SockJSSocket socket) {
     super(charset, getInitialSize(socket));
     this.context = context;
     this.socket = socket;
+    if (isBinaryFraming(socket)) {
+      eventDecoder = new TtyEventDecoder(3, 26, 4);
+      decoder = new BinaryDecoder(512, charset, eventDecoder);
+    } else {
+      eventDecoder = null;
+      decoder = null;
+    }
+  }
+
+  /**
+   * @return whether the connection uses the binary framing
+   */
+  public boolean isBinary() {
+    return decoder != null;
+  }
+
+  /**
+   * Decode an inbound frame.
+   *
+   * @param frame the frame
+   */
+  public void readFrame(Buffer frame) {
+    if (decoder == null) {
+      writeToDecoder(frame.toString());
+    } else if (frame.length() > 0) {
+      switch (frame.getByte(0)) {
+        case OP_DATA:
+          lastReadTime = System.currentTimeMillis();
+          decoder.write(frame.getBytes(1, frame.length()));
+          break;
+        case OP_RESIZE:
+          if (frame.length() >= 5) {
+            // Resizing is rare, reuse the size handling of the JSON framing
+            writeToDecoder("{\"action\":\"resize\",\"cols\":" + frame.getUnsignedShort(1) + ",\"rows\":" + frame.getUnsignedShort(3) + "}");
+          }
+          break;
+      }
+    }
+  }
+
+  @Override
+  public void setStdinHandler(Consumer<int[]> handler) {
+    super.setStdinHandler(handler);
+    if (eventDecoder != null) {
+      eventDecoder.setReadHandler(handler);
+    }
+  }
+
+  @Override
+  public void setEventHandler(BiConsumer<TtyEvent, Integer> handler) {
+    super.setEventHandler(handler);
+    if (eventDecoder != null) {
+      eventDecoder.setEventHandler(handler);
+    }
+  }
+
+  @Override
+  public long lastAccessedTime() {
+    return Math.max(super.lastAccessedTime(), lastReadTime);
+  }
+
+  @Override
+  public String user() {
+    User user = socket.webUser();
+    return user != null ? user.subject() : null;
   }
 
   @Override
@@ -63,6 +150,30 @@ public class SockJSTtyConnection extends HttpTtyConnection {
     socket.write(Buffer.buffer(bytes));
   }
 
+  @Override
+  public void writeText(String text) {
+    socket.write(encoder.encode(text, outputCharset()));
+  }
+
+  @Override
+  public void write(Buffer data) {
+    if (outputCharset().equals(StandardCharsets.UTF_8)) {
+      socket.write(encoder.translate(data));
+    } else {
+      writeText(data.toString(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return socket.writeQueueFull();
+  }
+
+  @Override
+  public void drainHandler(Handler<Void> handler) {
+    socket.drainHandler(handler);
+  }
+
   @Override
   public void close() {
     socket.close();
@@ -78,6 +189,12 @@ public class SockJSTtyConnection extends HttpTtyConnection {
     context.owner().setTimer(timeUnit.toMillis(l), id -> runnable.run());
   }
 
+  private static boolean isBinaryFraming(SockJSSocket socket) {
+    QueryStringDecoder decoder = new QueryStringDecoder(socket.uri());
+    List<String> framing = decoder.parameters().get("framing");
+    return decoder.path().endsWith("/websocket") && framing != null && framing.contains("binary");
+  }
+
   private static Vector getInitialSize(SockJSSocket socket) {
     QueryStringDecoder decoder = new QueryStringDecoder(socket.uri());
     Map<String, List<String>> params = decoder.parameters();
@@ -58,6 +58,9 @@ public class TelnetSocketHandler implements Handler<NetSocket> {
   public void handle(final NetSocket socket) {
     TelnetHandler handler = factory.get();
     final VertxTelnetConnection connection = new VertxTelnetConnection(handler, Vertx.currentContext(), socket);
+    if (handler instanceof VertxTelnetTtyConnection) {
+      ((VertxTelnetTtyConnection) handler).setConnection(connection);
+    }
     socket.handler(event -> connection.receive(event.getBytes()));
     socket.closeHandler(event -> connection.onClose());
     connection.onInit();
@@ -33,9 +33,9 @@
 package io.vertx.ext.shell.term.impl;
 
 import io.termd.core.readline.Keymap;
-import io.termd.core.telnet.TelnetTtyConnection;
 import io.vertx.core.*;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.net.NetServer;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.shell.term.TelnetTermOptions;
@@ -83,9 +83,11 @@ public class TelnetTermServer implements TermServer {
         return this;
       }
       Keymap keymap = new Keymap(new ByteArrayInputStream(inputrc.getBytes()));
-      TermConnectionHandler connectionHandler = new TermConnectionHandler(vertx, keymap, termHandler, null);
+      // Pin the sessions to the context accepting the connections, a shared server has one per instance
+      ContextInternal context = (ContextInternal) vertx.getOrCreateContext();
+      TermConnectionHandler connectionHandler = new TermConnectionHandler(vertx, keymap, termHandler, context);
       server.connectHandler(new TelnetSocketHandler(vertx, () -> {
-        return new TelnetTtyConnection(options.getInBinary(), options.getOutBinary(), charset, connectionHandler::handle);
+        return new VertxTelnetTtyConnection(options.getInBinary(), options.getOutBinary(), charset, connectionHandler::handle);
       }));
       server.listen()
         .onComplete(ar -> {
@@ -39,27 +39,45 @@ import io.vertx.core.Vertx;
 import io.vertx.core.internal.ContextInternal;
 import io.vertx.ext.shell.term.Term;
 
+import java.util.function.Supplier;
+
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 class TermConnectionHandler implements Handler<TtyConnection> {
 
-  final ContextInternal context;
+  final Supplier<ContextInternal> contexts;
   final Vertx vertx;
   final Handler<Term> handler;
   final Keymap keymap;
 
 
   public TermConnectionHandler(Vertx vertx, Keymap keymap, Handler<Term> handler, ContextInternal context) {
+    this(vertx, keymap, handler, context != null ? () -> context : null);
+  }
+
+  /**
+   * @param contexts supplies the context of each connection
+   */
+  public TermConnectionHandler(Vertx vertx, Keymap keymap, Handler<Term> handler, Supplier<ContextInternal> contexts) {
     this.vertx = vertx;
     this.handler = handler;
     this.keymap = keymap;
-    this.context = context;
+    this.contexts = contexts;
   }
 
   @Override
   public void handle(TtyConnection conn) {
+    handle(conn, null);
+  }
+
+  /**
+   * Handle a connection authenticated as {@code user}.
+   */
+  public void handle(TtyConnection conn, String user) {
+    ContextInternal context = contexts != null ? contexts.get() : null;
     TermImpl term = new TermImpl(vertx, keymap, conn, context);
+    term.setUser(user);
     if (context != null) {
       context.dispatch(term, handler);
     } else {
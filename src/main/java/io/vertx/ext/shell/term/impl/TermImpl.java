@@ -32,20 +32,23 @@
 
 package io.vertx.ext.shell.term.impl;
 
+import io.termd.core.readline.KeyEvent;
 import io.termd.core.readline.Keymap;
 import io.termd.core.readline.Readline;
 import io.termd.core.tty.TtyConnection;
 import io.termd.core.util.Helper;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.internal.ContextInternal;
 import io.vertx.ext.shell.cli.CliToken;
 import io.vertx.ext.shell.cli.Completion;
+import io.vertx.ext.shell.cli.impl.LineTokenizer;
 import io.vertx.ext.shell.session.Session;
 import io.vertx.ext.shell.term.SignalHandler;
 import io.vertx.ext.shell.term.Term;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -55,18 +58,32 @@ import java.util.stream.Collectors;
  */
 public class TermImpl implements Term {
 
+  /**
+   * The maximum number of code points of buffered input delivered at once to the stdin handler.
+   */
+  private static final int MAX_PENDING_BATCH = 4096;
+
+  /**
+   * The maximum size of the retained echo buffer, larger echoes use a temporary buffer.
+   */
+  private static final int MAX_ECHO_BUFFER = 64 * 1024;
+
   private static final List<io.termd.core.readline.Function> readlineFunctions = Helper.loadServices(Thread.currentThread().getContextClassLoader(), io.termd.core.readline.Function.class);
 
   private final ContextInternal context;
   private final Vertx vertx;
   private final Readline readline;
   private final Consumer<int[]> echoHandler;
-  final TtyConnection conn;
+  final BracketedPasteConnection conn;
+  private final VertxTtyConnection transport;
   volatile Handler<String> stdinHandler;
   private SignalHandler interruptHandler;
   private SignalHandler suspendHandler;
   private Session session;
+  private volatile String user;
   private boolean inReadline;
+  private boolean drainScheduled;
+  private int[] echoBuffer = new int[16];
 
   public TermImpl(Vertx vertx, Keymap keymap, TtyConnection conn) {
     this(vertx, keymap, conn, null);
@@ -82,7 +99,8 @@ public class TermImpl implements Term {
 
   public TermImpl(Vertx vertx, Keymap keymap, TtyConnection conn, ContextInternal context) {
     this.vertx = vertx;
-    this.conn = conn;
+    this.conn = new BracketedPasteConnection(conn);
+    this.transport = conn instanceof VertxTtyConnection ? (VertxTtyConnection) conn : null;
     this.context = context;
     this.readline = new Readline(keymap);
     this.readlineFunctions.forEach(readline::addFunction);
@@ -91,8 +109,8 @@ public class TermImpl implements Term {
       echo(codePoints);
       readline.queueEvent(codePoints);
     };
-    conn.setStdinHandler(echoHandler);
-    conn.setEventHandler((event, key) -> {
+    this.conn.setStdinHandler(echoHandler);
+    this.conn.setEventHandler((event, key) -> {
       switch (event) {
         case INTR:
           if (interruptHandler == null || !interruptHandler.deliver(key)) {
@@ -146,12 +164,13 @@ public class TermImpl implements Term {
       throw new IllegalStateException();
     }
     inReadline = true;
+    LineTokenizer tokenizer = new LineTokenizer();
     readline.readline(conn, prompt, line -> {
       inReadline = false;
       lineHandler.handle(line);
     }, abc -> {
-      String line = Helper.fromCodePoints(abc.line());
-      List<CliToken> tokens = Collections.unmodifiableList(CliToken.tokenize(line));
+      List<CliToken> tokens = tokenizer.tokenize(abc.line());
+      String line = tokenizer.line();
       Completion comp = new Completion() {
 
         @Override
@@ -214,6 +233,22 @@ public class TermImpl implements Term {
     return conn.lastAccessedTime();
   }
 
+  @Override
+  public String user() {
+    String user = this.user;
+    if (user == null && transport != null) {
+      user = transport.user();
+    }
+    return user;
+  }
+
+  /**
+   * Set the user authenticated by the term server when the connection does not carry it.
+   */
+  void setUser(String user) {
+    this.user = user;
+  }
+
   @Override
   public String type() {
     return conn.terminalType();
@@ -229,10 +264,49 @@ public class TermImpl implements Term {
     return conn.size() != null ? conn.size().y() : -1;
   }
 
+  /**
+   * Deliver the events buffered by readline to the stdin handler in batches, on the term context.
+   */
   void checkPending() {
-    if (stdinHandler != null && readline.hasEvent()) {
-      stdinHandler.handle(Helper.fromCodePoints(readline.nextEvent().buffer().array()));
-      vertx.runOnContext(v -> checkPending());
+    Handler<String> handler = stdinHandler;
+    if (handler == null || !readline.hasEvent()) {
+      return;
+    }
+    StringBuilder batch = new StringBuilder();
+    while (batch.length() < MAX_PENDING_BATCH && readline.hasEvent()) {
+      KeyEvent event = readline.nextEvent();
+      for (int i = 0;i < event.length();i++) {
+        batch.appendCodePoint(event.getCodePointAt(i));
+      }
+    }
+    deliverStdin(handler, batch.toString());
+    if (readline.hasEvent()) {
+      scheduleDrain();
+    }
+  }
+
+  private synchronized void scheduleDrain() {
+    if (!drainScheduled) {
+      drainScheduled = true;
+      Runnable task = () -> {
+        synchronized (TermImpl.this) {
+          drainScheduled = false;
+        }
+        checkPending();
+      };
+      if (context != null) {
+        context.runOnContext(v -> task.run());
+      } else {
+        conn.execute(task);
+      }
+    }
+  }
+
+  private void deliverStdin(Handler<String> handler, String data) {
+    if (context != null) {
+      context.dispatch(data, handler);
+    } else {
+      handler.handle(data);
     }
   }
 
@@ -263,23 +337,70 @@ public class TermImpl implements Term {
     stdinHandler = handler;
     if (handler != null) {
       conn.setStdinHandler(codePoints -> {
-        String arg = Helper.fromCodePoints(codePoints);
-        if (context != null) {
-          context.dispatch(arg, handler);
+        if (readline.hasEvent()) {
+          // Keep the order with the input buffered by readline
+          readline.queueEvent(codePoints);
+          scheduleDrain();
         } else {
-          handler.handle(arg);
+          deliverStdin(handler, Helper.fromCodePoints(codePoints));
         }
       });
-      checkPending();
+      if (readline.hasEvent()) {
+        scheduleDrain();
+      }
     } else {
       conn.setStdinHandler(echoHandler);
     }
     return this;
   }
 
+  @Override
+  public Term setBracketedPaste(boolean enabled) {
+    return write(enabled ? BracketedPasteConnection.ENABLE : BracketedPasteConnection.DISABLE);
+  }
+
   @Override
   public Term write(String data) {
-    conn.write(data);
+    conn.flush();
+    if (transport != null) {
+      transport.writeText(data);
+    } else {
+      conn.write(data);
+    }
+    return this;
+  }
+
+  @Override
+  public Term write(Buffer data) {
+    conn.flush();
+    if (transport != null) {
+      transport.write(data);
+    } else {
+      conn.write(data.toString(StandardCharsets.UTF_8));
+    }
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return transport != null && transport.writeQueueFull();
+  }
+
+  @Override
+  public Term drainHandler(Handler<Void> handler) {
+    if (transport != null) {
+      if (handler != null) {
+        transport.drainHandler(v -> {
+          if (context != null) {
+            context.dispatch(handler);
+          } else {
+            handler.handle(null);
+          }
+        });
+      } else {
+        transport.drainHandler(null);
+      }
+    }
     return this;
   }
 
@@ -302,26 +423,44 @@ public class TermImpl implements Term {
     return this;
   }
 
-  public void echo(int... codePoints) {
-    Consumer<int[]> out = conn.stdoutHandler();
+  public synchronized void echo(int... codePoints) {
+    int len = 0;
+    int size = codePoints.length * 3;
+    int[] buffer;
+    if (size > MAX_ECHO_BUFFER) {
+      buffer = new int[size];
+    } else {
+      if (echoBuffer.length < size) {
+        echoBuffer = new int[size];
+      }
+      buffer = echoBuffer;
+    }
     for (int codePoint : codePoints) {
       if (codePoint < 32) {
         if (codePoint == '\t') {
-          out.accept(new int[]{'\t'});
+          buffer[len++] = '\t';
         } else if (codePoint == '\b') {
-          out.accept(new int[]{'\b', ' ', '\b'});
+          buffer[len++] = '\b';
+          buffer[len++] = ' ';
+          buffer[len++] = '\b';
         } else if (codePoint == '\r' || codePoint == '\n') {
-          out.accept(new int[]{'\n'});
+          buffer[len++] = '\n';
         } else {
-          out.accept(new int[]{'^', codePoint + 64});
+          buffer[len++] = '^';
+          buffer[len++] = codePoint + 64;
         }
       } else {
         if (codePoint == 127) {
-          out.accept(new int[]{'\b', ' ', '\b'});
+          buffer[len++] = '\b';
+          buffer[len++] = ' ';
+          buffer[len++] = '\b';
         } else {
-          out.accept(new int[]{codePoint});
+          buffer[len++] = codePoint;
         }
       }
     }
+    if (len > 0) {
+      conn.writeOutput(buffer, 0, len);
+    }
   }
 }
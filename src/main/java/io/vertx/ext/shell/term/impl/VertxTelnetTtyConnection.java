@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.term.impl;
+
+import io.termd.core.telnet.TelnetTtyConnection;
+import io.termd.core.tty.TtyConnection;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * A telnet tty connection aware of the {@link io.vertx.core.net.NetSocket} it is bound to.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class VertxTelnetTtyConnection extends TelnetTtyConnection implements VertxTtyConnection {
+
+  private final OutputEncoder encoder = new OutputEncoder(true);
+  private VertxTelnetConnection connection;
+
+  public VertxTelnetTtyConnection(boolean inBinary, boolean outBinary, Charset charset, Consumer<TtyConnection> handler) {
+    super(inBinary, outBinary, charset, handler);
+  }
+
+  void setConnection(VertxTelnetConnection connection) {
+    this.connection = connection;
+  }
+
+  @Override
+  public void writeText(String text) {
+    if (connection != null) {
+      connection.socket.write(encoder.encode(text, outputCharset()));
+    } else {
+      write(text);
+    }
+  }
+
+  @Override
+  public void write(Buffer data) {
+    if (connection != null && outputCharset().equals(StandardCharsets.UTF_8)) {
+      connection.socket.write(encoder.translate(data));
+    } else {
+      writeText(data.toString(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return connection != null && connection.socket.writeQueueFull();
+  }
+
+  @Override
+  public void drainHandler(Handler<Void> handler) {
+    if (connection != null) {
+      connection.socket.drainHandler(handler);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.term.impl;
+
+import io.termd.core.tty.TtyConnection;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A {@link TtyConnection} exposing the state of the underlying Vert.x transport.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public interface VertxTtyConnection extends TtyConnection {
+
+  /**
+   * Write text directly to the transport, the text is encoded with the connection output charset.
+   *
+   * @param text the text to write
+   */
+  void writeText(String text);
+
+  /**
+   * Write UTF-8 encoded bytes directly to the transport, the bytes are transcoded when the connection output charset
+   * is not UTF-8.
+   *
+   * @param data the bytes to write
+   */
+  void write(Buffer data);
+
+  /**
+   * @return true when the transport write queue is full
+   */
+  boolean writeQueueFull();
+
+  /**
+   * Set an handler called when the transport write queue is drained.
+   *
+   * @param handler the drain handler
+   */
+  void drainHandler(Handler<Void> handler);
+
+  /**
+   * @return the name of the user authenticated by the transport, or {@code null}
+   */
+  default String user() {
+    return null;
+  }
+
+}
@@ -5,6 +5,7 @@
     term.open(element, true);
 
     var socket;
+    var binary = false;
     var initialResize = true;
     var onResize = function (size) {
       var cols = size.cols, rows = size.rows;
@@ -12,22 +13,31 @@
         initialResize = false;
         url += (url.indexOf('?') > -1 ? '&' : '?') + "cols=" + cols + "&rows=" + rows;
         if (url.substring(0, 2) === 'ws') {
+          // Raw WebSocket: use the binary framing when the browser can encode UTF-8
+          binary = typeof TextEncoder !== 'undefined' && typeof TextDecoder !== 'undefined';
+          if (binary) {
+            url += "&framing=binary";
+          }
           socket = new WebSocket(url);
-          socket.binaryType = 'blob';
+          socket.binaryType = binary ? 'arraybuffer' : 'blob';
         } else {
           socket = new SockJS(url);
         }
+        var encoder = binary ? new TextEncoder() : null;
+        var decoder = binary ? new TextDecoder('utf-8') : null;
         socket.onopen = function () {
           socket.onmessage = function (event) {
             if (event.type === 'message') {
-              if (typeof event.data !== 'string') {
+              if (typeof event.data === 'string') {
+                term.write(event.data);
+              } else if (decoder !== null) {
+                term.write(decoder.decode(new Uint8Array(event.data), {stream: true}));
+              } else {
                 var reader = new FileReader();
                 reader.onloadend = function () {
                   term.write(reader.result);
                 };
                 reader.readAsText(event.data);
-              } else {
-                term.write(event.data);
               }
             }
           };
@@ -37,9 +47,19 @@
             term.destroy();
           };
           term.on('data', function (data) {
-            socket.send(JSON.stringify({action: 'read', data: data}));
+            if (binary) {
+              var bytes = encoder.encode(data);
+              var frame = new Uint8Array(bytes.length + 1);
+              frame[0] = 0;
+              frame.set(bytes, 1);
+              socket.send(frame);
+            } else {
+              socket.send(JSON.stringify({action: 'read', data: data}));
+            }
           });
         };
+      } else if (binary) {
+        socket.send(new Uint8Array([1, (cols >> 8) & 0xFF, cols & 0xFF, (rows >> 8) & 0xFF, rows & 0xFF]));
       } else {
         socket.send(JSON.stringify({action: 'resize', cols: cols, rows: rows}));
       }
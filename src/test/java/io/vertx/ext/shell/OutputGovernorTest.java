@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.impl.OutputGovernor;
+import io.vertx.ext.shell.support.TestTtyConnection;
+import io.vertx.ext.shell.term.impl.TermImpl;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class OutputGovernorTest {
+
+  Vertx vertx;
+  TestTtyConnection conn;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx();
+    conn = new TestTtyConnection(vertx);
+  }
+
+  @After
+  public void after(TestContext context) {
+    vertx.close().onComplete(context.asyncAssertSuccess());
+  }
+
+  private OutputGovernor governor(OutputRatePolicy policy) {
+    return new OutputGovernor(vertx, new TermImpl(vertx, conn), 6, policy);
+  }
+
+  @Test
+  public void testBlock(TestContext context) {
+    OutputGovernor governor = governor(OutputRatePolicy.BLOCK);
+    Async drained = context.async();
+    vertx.runOnContext(v -> {
+      governor.write("line1\n");
+      context.assertFalse(governor.writeQueueFull());
+      governor.write("line2\n");
+      context.assertTrue(governor.writeQueueFull());
+      governor.drainHandler(v2 -> {
+        context.assertFalse(governor.writeQueueFull());
+        drained.complete();
+      });
+    });
+    drained.awaitSuccess(10000);
+    conn.assertWritten("line1\nline2\n");
+    context.assertEquals(0L, governor.suppressedBytes());
+  }
+
+  @Test
+  public void testDropOldest(TestContext context) {
+    OutputGovernor governor = governor(OutputRatePolicy.DROP_OLDEST);
+    vertx.runOnContext(v -> {
+      governor.write("line1\n");
+      governor.write("line2\n");
+      governor.write("line3\n");
+      context.assertFalse(governor.writeQueueFull());
+    });
+    conn.assertWritten("line1\nline3\n");
+    context.assertEquals(6L, governor.suppressedBytes());
+    context.assertEquals(1L, governor.suppressedLines());
+  }
+
+  @Test
+  public void testSummarize(TestContext context) {
+    OutputGovernor governor = governor(OutputRatePolicy.SUMMARIZE);
+    vertx.runOnContext(v -> {
+      governor.write("line1\n");
+      governor.write("line2\n");
+      governor.write("line3\n");
+    });
+    conn.assertWritten("line1\n... 2 lines suppressed ...\n");
+    context.assertEquals(12L, governor.suppressedBytes());
+    context.assertEquals(2L, governor.suppressedLines());
+  }
+
+  @Test
+  public void testBlockBacklogIsBounded(TestContext context) {
+    OutputGovernor governor = new OutputGovernor(vertx, new TermImpl(vertx, conn), 6, OutputRatePolicy.BLOCK, 6);
+    vertx.runOnContext(v -> {
+      governor.write("line1\n");
+      governor.write("line2\n");
+      governor.write("line3\n");
+      context.assertTrue(governor.writeQueueFull());
+    });
+    conn.assertWritten("line1\nline2\n... 1 lines suppressed ...\n");
+    context.assertEquals(6L, governor.suppressedBytes());
+  }
+
+  @Test
+  public void testWhenDrained(TestContext context) {
+    OutputGovernor governor = governor(OutputRatePolicy.BLOCK);
+    Async drained = context.async();
+    vertx.runOnContext(v -> {
+      governor.write("line1\n");
+      governor.write("line2\n");
+      governor.whenDrained(v2 -> {
+        synchronized (conn) {
+          context.assertEquals("line1\nline2\n", conn.out().toString());
+        }
+        drained.complete();
+      });
+    });
+    drained.awaitSuccess(10000);
+  }
+
+  @Test
+  public void testOrderWithConcurrentDrain(TestContext context) throws Exception {
+    OutputGovernor governor = new OutputGovernor(vertx, new TermImpl(vertx, conn), 800, OutputRatePolicy.BLOCK);
+    StringBuilder expected = new StringBuilder();
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 200; i++) {
+        governor.write(String.format("line%03d\n", i));
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    });
+    for (int i = 0; i < 200; i++) {
+      expected.append(String.format("line%03d\n", i));
+    }
+    writer.start();
+    writer.join();
+    conn.assertWritten(expected.toString());
+  }
+}
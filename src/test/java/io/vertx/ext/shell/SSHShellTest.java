@@ -32,18 +32,28 @@
 
 package io.vertx.ext.shell;
 
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.JksOptions;
 import io.vertx.ext.shell.command.CommandBuilder;
 import io.vertx.ext.shell.command.CommandRegistry;
 import io.vertx.ext.shell.term.SSHTermOptions;
 import io.vertx.ext.unit.TestContext;
 import org.junit.After;
+import org.junit.Test;
 
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -102,4 +112,81 @@ public class SSHShellTest extends SSHTestBase {
     super.testExec(context);
     assertEquals(execCommand.get(), vertx);
   }
+
+  @Test
+  public void testExecOnEventLoopGroup(TestContext context) throws Exception {
+    List<Context> contexts = new CopyOnWriteArrayList<>();
+    CommandRegistry registry = CommandRegistry.getShared(vertx);
+    registry.registerCommand(CommandBuilder.command("the-command").processHandler(process -> {
+      contexts.add(Vertx.currentContext());
+      process.write("the_output").end();
+    }).build(vertx)).await(20, TimeUnit.SECONDS);
+    startShell(new SSHTermOptions().setPort(5000).setHost("localhost").setEventLoopGroup(true).setKeyPairOptions(
+      new JksOptions().setPath("src/test/resources/server-keystore.jks").setPassword("wibble")).
+      setAuthOptions(new JsonObject()
+        .put("provider", "properties")
+        .put("config",
+          new JsonObject().put("file", "test-auth.properties"))));
+    for (int i = 0;i < 2;i++) {
+      Session session = createSession("paulo", "secret", false);
+      session.connect();
+      ChannelExec channel = (ChannelExec) session.openChannel("exec");
+      channel.setCommand("the-command");
+      InputStream in = channel.getInputStream();
+      channel.connect();
+      StringBuilder output = new StringBuilder();
+      for (int c = in.read();c != -1;c = in.read()) {
+        output.append((char) c);
+      }
+      assertEquals("the_output", output.toString());
+      session.disconnect();
+    }
+    assertEquals(2, contexts.size());
+    assertTrue(contexts.get(0).isEventLoopContext());
+    assertNotSame(contexts.get(0), contexts.get(1));
+  }
+
+  @Test
+  public void testExecMaxSessions(TestContext context) throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CommandRegistry registry = CommandRegistry.getShared(vertx);
+    registry.registerCommand(CommandBuilder.command("the-command").processHandler(process -> {
+      process.write("started");
+      started.countDown();
+    }).build(vertx)).await(20, TimeUnit.SECONDS);
+    service = ShellService.create(vertx, new ShellServiceOptions().
+        setWelcomeMessage("").
+        setMaxSessions(1).
+        setSSHOptions(new SSHTermOptions().setPort(5000).setHost("localhost").setKeyPairOptions(
+          new JksOptions().setPath("src/test/resources/server-keystore.jks").setPassword("wibble")).
+          setAuthOptions(new JsonObject()
+            .put("provider", "properties")
+            .put("config",
+              new JsonObject().put("file", "test-auth.properties")))));
+    service.start().await();
+    Session session1 = createSession("paulo", "secret", false);
+    session1.connect();
+    ChannelExec channel1 = (ChannelExec) session1.openChannel("exec");
+    channel1.setCommand("the-command");
+    channel1.connect();
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    Session session2 = createSession("paulo", "secret", false);
+    session2.connect();
+    ChannelExec channel2 = (ChannelExec) session2.openChannel("exec");
+    channel2.setCommand("the-command");
+    InputStream in = channel2.getInputStream();
+    channel2.connect();
+    StringBuilder output = new StringBuilder();
+    for (int c = in.read();c != -1;c = in.read()) {
+      output.append((char) c);
+    }
+    assertTrue(output.toString().contains("Too many sessions, try again later"));
+    while (channel2.isConnected()) {
+      Thread.sleep(1);
+    }
+    assertEquals(1, channel2.getExitStatus());
+    assertTrue(channel1.isConnected());
+    session2.disconnect();
+    session1.disconnect();
+  }
 }
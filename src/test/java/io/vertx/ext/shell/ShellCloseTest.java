@@ -35,6 +35,8 @@ package io.vertx.ext.shell;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.ext.shell.command.CommandBuilder;
+import io.vertx.ext.shell.command.CommandProcess;
+import io.vertx.ext.shell.impl.ShellImpl;
 import io.vertx.ext.shell.support.TestCommands;
 import io.vertx.ext.shell.support.TestTermServer;
 import io.vertx.ext.shell.support.TestTtyConnection;
@@ -46,9 +48,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -76,11 +82,15 @@ public class ShellCloseTest {
   }
 
   private void startShellServer(TestContext context, long sessionTimeout, long reaperInterval) {
+    startShellServer(context, new ShellServerOptions().setSessionTimeout(sessionTimeout).setReaperInterval(reaperInterval));
+  }
+
+  private void startShellServer(TestContext context, ShellServerOptions options) {
     if (shellServer != null) {
       throw new IllegalStateException("Already started");
     }
     Async latch = context.async();
-    shellServer = ShellServer.create(vertx, new ShellServerOptions().setSessionTimeout(sessionTimeout).setReaperInterval(reaperInterval)).
+    shellServer = ShellServer.create(vertx, options).
         registerTermServer(termServer).
         registerCommandResolver(registry);
     shellServer.
@@ -115,6 +125,203 @@ public class ShellCloseTest {
     context.assertTrue(conn.getCloseLatch().await(2, TimeUnit.SECONDS));
   }
 
+  @Test
+  public void testIdleDeadline(TestContext context) throws Exception {
+    startShellServer(context, 30000, 100);
+    AtomicReference<Shell> shell = new AtomicReference<>();
+    shellServer.shellHandler(shell::set);
+    TestTtyConnection conn = termServer.openConnection();
+    conn.read("a");
+    context.assertEquals(conn.lastAccessedTime() + 30000, shell.get().idleDeadline());
+    context.assertFalse(conn.isClosed());
+  }
+
+  @Test
+  public void testManySessionsExpire(TestContext context) throws Exception {
+    startShellServer(context, 500, 50);
+    List<TestTtyConnection> idle = new ArrayList<>();
+    for (int i = 0;i < 100;i++) {
+      TestTtyConnection conn = termServer.openConnection();
+      conn.read("" + i);
+      idle.add(conn);
+    }
+    TestTtyConnection active = termServer.openConnection();
+    active.read("a");
+    long now = System.currentTimeMillis();
+    for (TestTtyConnection conn : idle) {
+      while (!conn.getCloseLatch().await(50, TimeUnit.MILLISECONDS)) {
+        context.assertTrue(System.currentTimeMillis() - now < 5000);
+        active.read("a");
+      }
+    }
+    context.assertFalse(active.isClosed());
+  }
+
+  @Test
+  public void testReattach(TestContext context) throws Exception {
+    Async started = context.async();
+    Async received = context.async();
+    AtomicReference<CommandProcess> cmd = new AtomicReference<>();
+    registry.add(CommandBuilder.command("cmd").processHandler(process -> {
+      process.stdinHandler(data -> {
+        context.assertEquals("abc", data);
+        received.complete();
+      });
+      cmd.set(process);
+      started.complete();
+    }));
+    startShellServer(context, new ShellServerOptions().setSessionTimeout(30000).setReaperInterval(100).setDetachTimeout(30000));
+    AtomicReference<ShellImpl> shell = new AtomicReference<>();
+    shellServer.shellHandler(s -> shell.compareAndSet(null, (ShellImpl) s));
+    TestTtyConnection conn1 = termServer.openConnection();
+    waitWritten(context, conn1, "Reattach this session with: attach ");
+    Matcher matcher = Pattern.compile("with: attach ([0-9a-f\\-]+)").matcher(conn1.out());
+    context.assertTrue(matcher.find());
+    String token = matcher.group(1);
+    conn1.read("cmd\r");
+    started.awaitSuccess(20000);
+    conn1.close();
+    long now = System.currentTimeMillis();
+    while (!shell.get().isDetached()) {
+      context.assertTrue(System.currentTimeMillis() - now < 5000);
+      Thread.sleep(10);
+    }
+    cmd.get().write("missed output");
+    TestTtyConnection conn2 = termServer.openConnection();
+    conn2.read("attach " + token + "\r");
+    waitWritten(context, conn2, "missed output");
+    context.assertFalse(shell.get().isDetached());
+    conn2.read("abc");
+    received.awaitSuccess(20000);
+  }
+
+  @Test
+  public void testDetachExpires(TestContext context) throws Exception {
+    testDetachExpires(context, 50);
+  }
+
+  @Test
+  public void testDetachExpiresWithoutReaper(TestContext context) throws Exception {
+    testDetachExpires(context, 0);
+  }
+
+  private void testDetachExpires(TestContext context, long reaperInterval) throws Exception {
+    Async started = context.async();
+    Async ended = context.async();
+    registry.add(CommandBuilder.command("cmd").processHandler(process -> {
+      process.endHandler(v -> ended.complete());
+      started.complete();
+    }));
+    startShellServer(context, new ShellServerOptions().setSessionTimeout(30 * 60 * 1000).setReaperInterval(reaperInterval).setDetachTimeout(200));
+    TestTtyConnection conn = termServer.openConnection();
+    conn.read("cmd\r");
+    started.awaitSuccess(20000);
+    long now = System.currentTimeMillis();
+    conn.close();
+    ended.awaitSuccess(5000);
+    context.assertTrue(System.currentTimeMillis() - now >= 200);
+  }
+
+  @Test
+  public void testReattachOtherUser(TestContext context) throws Exception {
+    startShellServer(context, new ShellServerOptions().setReaperInterval(0).setDetachTimeout(30000));
+    AtomicReference<ShellImpl> shell = new AtomicReference<>();
+    shellServer.shellHandler(s -> shell.compareAndSet(null, (ShellImpl) s));
+    TestTtyConnection conn1 = termServer.openConnection("alice");
+    waitWritten(context, conn1, "Reattach this session with: attach ");
+    Matcher matcher = Pattern.compile("with: attach ([0-9a-f\\-]+)").matcher(conn1.out());
+    context.assertTrue(matcher.find());
+    String token = matcher.group(1);
+    conn1.close();
+    long now = System.currentTimeMillis();
+    while (!shell.get().isDetached()) {
+      context.assertTrue(System.currentTimeMillis() - now < 5000);
+      Thread.sleep(10);
+    }
+    TestTtyConnection conn2 = termServer.openConnection("bob");
+    conn2.read("attach " + token + "\r");
+    waitWritten(context, conn2, "no such session");
+    context.assertTrue(shell.get().isDetached());
+  }
+
+  private static void waitWritten(TestContext context, TestTtyConnection conn, String s) throws InterruptedException {
+    long now = System.currentTimeMillis();
+    synchronized (conn) {
+      while (conn.out().indexOf(s) < 0) {
+        context.assertTrue(System.currentTimeMillis() - now < 5000);
+        conn.wait(100);
+      }
+    }
+  }
+
+  @Test
+  public void testMaxSessions(TestContext context) throws Exception {
+    startShellServer(context, new ShellServerOptions().setReaperInterval(0).setMaxSessions(1));
+    TestTtyConnection conn1 = termServer.openConnection();
+    TestTtyConnection conn2 = termServer.openConnection();
+    context.assertTrue(conn2.getCloseLatch().await(2, TimeUnit.SECONDS));
+    waitWritten(context, conn2, "Too many sessions, try again later");
+    context.assertFalse(conn1.isClosed());
+    context.assertEquals(1L, shellServer.rejectedSessions());
+  }
+
+  @Test
+  public void testSessionQueue(TestContext context) throws Exception {
+    startShellServer(context, new ShellServerOptions().setReaperInterval(0).setMaxSessions(1).setSessionQueueSize(1).setWelcomeMessage(""));
+    TestTtyConnection conn1 = termServer.openConnection();
+    TestTtyConnection conn2 = termServer.openConnection();
+    TestTtyConnection conn3 = termServer.openConnection();
+    context.assertTrue(conn3.getCloseLatch().await(2, TimeUnit.SECONDS));
+    conn2.assertWritten("Too many sessions, waiting for a session...\n");
+    context.assertFalse(conn2.isClosed());
+    conn1.close();
+    conn2.assertWritten("% ");
+    context.assertEquals(1L, shellServer.rejectedSessions());
+  }
+
+  @Test
+  public void testMaxSessionsPerUser(TestContext context) throws Exception {
+    startShellServer(context, new ShellServerOptions().setReaperInterval(0).setMaxSessionsPerUser(1));
+    TestTtyConnection conn1 = termServer.openConnection("bob");
+    TestTtyConnection conn2 = termServer.openConnection("alice");
+    TestTtyConnection conn3 = termServer.openConnection("bob");
+    context.assertTrue(conn3.getCloseLatch().await(2, TimeUnit.SECONDS));
+    context.assertFalse(conn1.isClosed());
+    context.assertFalse(conn2.isClosed());
+    context.assertEquals(1L, shellServer.rejectedSessions());
+  }
+
+  @Test
+  public void testReattachWithMaxSessionsPerUser(TestContext context) throws Exception {
+    startShellServer(context, new ShellServerOptions().setReaperInterval(0).setMaxSessionsPerUser(1).setDetachTimeout(30000));
+    AtomicReference<ShellImpl> shell = new AtomicReference<>();
+    shellServer.shellHandler(s -> shell.compareAndSet(null, (ShellImpl) s));
+    TestTtyConnection conn1 = termServer.openConnection("bob");
+    waitWritten(context, conn1, "Reattach this session with: attach ");
+    Matcher matcher = Pattern.compile("with: attach ([0-9a-f\\-]+)").matcher(conn1.out());
+    context.assertTrue(matcher.find());
+    String token = matcher.group(1);
+    conn1.close();
+    long now = System.currentTimeMillis();
+    while (!shell.get().isDetached()) {
+      context.assertTrue(System.currentTimeMillis() - now < 5000);
+      Thread.sleep(10);
+    }
+    // The detached session does not hold the slot of bob
+    TestTtyConnection conn2 = termServer.openConnection("bob");
+    conn2.read("attach " + token + "\r");
+    now = System.currentTimeMillis();
+    while (shell.get().isDetached()) {
+      context.assertTrue(System.currentTimeMillis() - now < 5000);
+      Thread.sleep(10);
+    }
+    // The reattached session holds it again
+    TestTtyConnection conn3 = termServer.openConnection("bob");
+    context.assertTrue(conn3.getCloseLatch().await(2, TimeUnit.SECONDS));
+    context.assertFalse(conn2.isClosed());
+    context.assertEquals(1L, shellServer.rejectedSessions());
+  }
+
   @Test
   public void testCloseShellServer(TestContext context) throws Exception {
     testClose(context, conn -> {
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.ext.shell.impl.ShellImpl;
+import io.vertx.ext.shell.term.TelnetTermOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.commons.net.telnet.EchoOptionHandler;
+import org.apache.commons.net.telnet.SimpleOptionHandler;
+import org.apache.commons.net.telnet.TelnetClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class ShellServiceTest {
+
+  private static final int EVENT_LOOPS = 2;
+
+  private Vertx vertx;
+  private ShellService service;
+  private TelnetClient client;
+  private volatile boolean saturated;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx(new VertxOptions()
+      .setEventLoopPoolSize(EVENT_LOOPS)
+      .setMaxEventLoopExecuteTime(1)
+      .setMaxEventLoopExecuteTimeUnit(TimeUnit.MINUTES));
+    client = new TelnetClient();
+    client.addOptionHandler(new EchoOptionHandler(false, false, true, true));
+    client.addOptionHandler(new SimpleOptionHandler(0, false, false, true, true));
+  }
+
+  @After
+  public void after(TestContext context) {
+    saturated = false;
+    if (client.isConnected()) {
+      try {
+        client.disconnect();
+      } catch (IOException ignore) {
+      }
+    }
+    Future<Void> stopped = service != null ? service.stop() : Future.succeededFuture();
+    stopped
+      .transform(ar -> vertx.close())
+      .onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testDedicatedEventLoopEchoLatency(TestContext context) throws Exception {
+    service = ShellService.create(vertx, new ShellServiceOptions()
+      .setEventLoopPoolSize(1)
+      .setWelcomeMessage("")
+      .setTelnetOptions(new TelnetTermOptions().setHost("localhost").setPort(4000)));
+    Async started = context.async();
+    service.start().onComplete(context.asyncAssertSuccess(v -> started.complete()));
+    started.awaitSuccess(5000);
+
+    // Keep every application event loop busy
+    saturated = true;
+    CountDownLatch busy = new CountDownLatch(EVENT_LOOPS);
+    for (int i = 0;i < EVENT_LOOPS;i++) {
+      Context ctx = ((VertxInternal) vertx).createEventLoopContext();
+      ctx.runOnContext(v -> {
+        busy.countDown();
+        while (saturated) {
+          try {
+            Thread.sleep(10);
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+      });
+    }
+    context.assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+    client.connect("localhost", 4000);
+    client.setSoTimeout(5000);
+    Reader reader = new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8);
+    OutputStream out = client.getOutputStream();
+    context.assertNotNull(readUntil(reader, "% ", 5000));
+
+    // The line editor echoes on the dedicated event loop
+    long now = System.nanoTime();
+    out.write('a');
+    out.flush();
+    context.assertNotNull(readUntil(reader, "a", 5000));
+    long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - now);
+    context.assertTrue(latency < 1000, "Echo latency " + latency + "ms");
+
+    // So do the base commands
+    out.write("\u007Fecho hello\r".getBytes(StandardCharsets.UTF_8));
+    out.flush();
+    String output = readUntil(reader, "% ", 5000);
+    context.assertNotNull(output);
+    context.assertTrue(output.indexOf("hello") < output.lastIndexOf("hello"), output);
+    context.assertTrue(saturated);
+  }
+
+  @Test
+  public void testAttachThroughAnotherInstance(TestContext context) throws Exception {
+    ShellServiceOptions options = new ShellServiceOptions()
+      .setInstances(2)
+      .setTelnetOptions(new TelnetTermOptions().setHost("localhost").setPort(4000));
+    options.setWelcomeMessage("");
+    options.setReaperInterval(0);
+    options.setDetachTimeout(30000);
+    service = ShellService.create(vertx, options);
+    List<ShellImpl> shells = Collections.synchronizedList(new ArrayList<>());
+    List<Context> shellContexts = Collections.synchronizedList(new ArrayList<>());
+    service.server().shellHandler(shell -> {
+      shellContexts.add(Vertx.currentContext());
+      shells.add((ShellImpl) shell);
+    });
+    Async started = context.async();
+    service.start().onComplete(context.asyncAssertSuccess(v -> started.complete()));
+    started.awaitSuccess(5000);
+
+    client.connect("localhost", 4000);
+    client.setSoTimeout(5000);
+    String output = readUntil(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8), "% ", 5000);
+    context.assertNotNull(output);
+    Matcher matcher = Pattern.compile("with: attach ([0-9a-f\\-]+)").matcher(output);
+    context.assertTrue(matcher.find());
+    String token = matcher.group(1);
+    client.disconnect();
+    ShellImpl detached = shells.get(0);
+    long now = System.currentTimeMillis();
+    while (!detached.isDetached()) {
+      context.assertTrue(System.currentTimeMillis() - now < 5000);
+      Thread.sleep(10);
+    }
+
+    // Connect until a session runs on the other instance
+    List<TelnetClient> clients = new ArrayList<>();
+    try {
+      TelnetClient other = null;
+      for (int i = 1;i <= 2 && other == null;i++) {
+        TelnetClient c = new TelnetClient();
+        clients.add(c);
+        c.connect("localhost", 4000);
+        c.setSoTimeout(5000);
+        context.assertNotNull(readUntil(new InputStreamReader(c.getInputStream(), StandardCharsets.UTF_8), "% ", 5000));
+        if (shellContexts.get(i) != shellContexts.get(0)) {
+          other = c;
+        }
+      }
+      context.assertNotNull(other);
+      other.getOutputStream().write(("attach " + token + "\r").getBytes(StandardCharsets.UTF_8));
+      other.getOutputStream().flush();
+      now = System.currentTimeMillis();
+      while (detached.isDetached()) {
+        context.assertTrue(System.currentTimeMillis() - now < 5000);
+        Thread.sleep(10);
+      }
+    } finally {
+      for (TelnetClient c : clients) {
+        c.disconnect();
+      }
+    }
+  }
+
+  private String readUntil(Reader reader, String expected, long timeout) throws IOException {
+    long deadline = System.currentTimeMillis() + timeout;
+    StringBuilder sb = new StringBuilder();
+    while (System.currentTimeMillis() < deadline) {
+      int c = reader.read();
+      if (c == -1) {
+        return null;
+      }
+      sb.append((char) c);
+      if (sb.indexOf(expected) >= 0) {
+        return sb.toString();
+      }
+    }
+    return null;
+  }
+}
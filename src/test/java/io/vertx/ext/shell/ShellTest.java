@@ -160,6 +160,24 @@ public class ShellTest {
     conn.read("read\rread\r");
   }
 
+  @Test
+  public void testDrainHandler(TestContext context) {
+    TestTtyConnection conn = new TestTtyConnection(vertx);
+    ShellImpl shell = createShell(conn);
+    shell.init().readline();
+    Async done = context.async();
+    commands.add(CommandBuilder.command("foo").processHandler(process -> {
+      context.assertTrue(process.writeQueueFull());
+      process.drainHandler(v -> {
+        context.assertFalse(process.writeQueueFull());
+        done.complete();
+      });
+      conn.setWriteQueueFull(false);
+    }));
+    conn.setWriteQueueFull(true);
+    conn.read("foo\r");
+  }
+
   @Test
   public void testSuspendProcess(TestContext context) throws Exception {
     TestTtyConnection conn = new TestTtyConnection(vertx);
@@ -315,6 +333,61 @@ public class ShellTest {
     conn.assertWritten("hello");
   }
 
+  @Test
+  public void testMaxJobs(TestContext context) throws Exception {
+    TestTtyConnection conn = new TestTtyConnection(vertx);
+    ShellImpl shell = createShell(conn);
+    shell.setMaxJobs(1);
+    shell.init().readline();
+    Async started = context.async();
+    Async suspended = context.async();
+    commands.add(CommandBuilder.command("foo").processHandler(process -> {
+      process.suspendHandler(v -> suspended.complete());
+      started.complete();
+    }));
+    conn.read("foo\r");
+    started.awaitSuccess(10000);
+    conn.sendEvent(TtyEvent.SUSP);
+    suspended.awaitSuccess(10000);
+    conn.out().setLength(0);
+    conn.read("bg\r");
+    conn.assertWritten("bg\n[1]+ Running foo\n% ");
+    conn.read("foo\r");
+    conn.assertWritten("foo\ntoo many running jobs\n% ");
+    context.assertEquals(1L, shell.rejectedJobs());
+    context.assertEquals(1, shell.jobController().jobs().size());
+  }
+
+  @Test
+  public void testMaxJobsOnResume(TestContext context) throws Exception {
+    TestTtyConnection conn = new TestTtyConnection(vertx);
+    ShellImpl shell = createShell(conn);
+    shell.setMaxJobs(1);
+    shell.init().readline();
+    AtomicReference<Async> started = new AtomicReference<>();
+    AtomicReference<Async> suspended = new AtomicReference<>();
+    commands.add(CommandBuilder.command("foo").processHandler(process -> {
+      Async async = suspended.get();
+      process.suspendHandler(v -> async.complete());
+      started.get().complete();
+    }));
+    for (int i = 0;i < 2;i++) {
+      started.set(context.async());
+      suspended.set(context.async());
+      conn.read("foo\r");
+      started.get().awaitSuccess(10000);
+      conn.sendEvent(TtyEvent.SUSP);
+      suspended.get().awaitSuccess(10000);
+    }
+    // Resume the first job, the second job is the current job
+    shell.jobController().getJob(1).resume(false);
+    conn.out().setLength(0);
+    conn.read("bg\r");
+    conn.assertWritten("bg\ntoo many running jobs\n% ");
+    context.assertEquals(1L, shell.rejectedJobs());
+    context.assertEquals(ExecStatus.STOPPED, shell.jobController().getJob(2).status());
+  }
+
   @Test
   public void backgroundToForeground(TestContext context) throws Exception {
     TestTtyConnection conn = new TestTtyConnection(vertx);
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.benchmarks;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.command.impl.OutputBuffer;
+import io.vertx.ext.shell.term.Pty;
+import io.vertx.ext.shell.term.Tty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compare the per write dispatch of the process output with the {@link OutputBuffer}, the workload simulates
+ * the {@code bus-tail --verbose} command writing four small strings per message.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OutputBufferBenchmark {
+
+  private static final int MESSAGES = 256;
+
+  private Vertx vertx;
+  private Context context;
+  private Tty tty;
+  private OutputBuffer buffer;
+  private long writes;
+  private long bytes;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    Pty pty = Pty.create();
+    pty.stdoutHandler(data -> {
+      // Simulate the transport encoding
+      writes++;
+      bytes += data.getBytes(StandardCharsets.UTF_8).length;
+    });
+    tty = pty.slave();
+    buffer = new OutputBuffer(context, tty);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public long perWriteDispatch() throws Exception {
+    return run(data -> context.runOnContext(v -> tty.write(data)));
+  }
+
+  @Benchmark
+  public long coalesced() throws Exception {
+    return run(buffer::write);
+  }
+
+  private long run(Consumer<String> writer) throws Exception {
+    CompletableFuture<Long> fut = new CompletableFuture<>();
+    context.runOnContext(v1 -> {
+      for (int i = 0;i < MESSAGES;i++) {
+        writer.accept("the-address:\n");
+        writer.accept("Reply address: null\n");
+        writer.accept("Header foo:[bar]\n");
+        writer.accept("the message body\n");
+      }
+      context.runOnContext(v2 -> fut.complete(writes + bytes));
+    });
+    return fut.get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.benchmarks;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.Session;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.JksOptions;
+import io.vertx.ext.shell.ShellService;
+import io.vertx.ext.shell.ShellServiceOptions;
+import io.vertx.ext.shell.command.CommandBuilder;
+import io.vertx.ext.shell.command.CommandRegistry;
+import io.vertx.ext.shell.term.SSHTermOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure many concurrent exec sessions against one SSH server, each round runs one exec per client session
+ * concurrently. Compare the single event loop with the event-loop group.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SSHExecBenchmark {
+
+  @Param({"false", "true"})
+  public boolean eventLoopGroup;
+
+  @Param({"32"})
+  public int clients;
+
+  private Vertx vertx;
+  private ShellService service;
+  private List<Session> sessions;
+
+  @Setup
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    CommandRegistry.getShared(vertx).registerCommand(CommandBuilder.command("work").processHandler(process -> {
+      // Some work on the session context
+      long hash = 0;
+      for (int i = 0;i < 100_000;i++) {
+        hash = hash * 31 + i;
+      }
+      process.write(Long.toHexString(hash)).end();
+    }).build(vertx)).await(20, TimeUnit.SECONDS);
+    service = ShellService.create(vertx, new ShellServiceOptions()
+      .setWelcomeMessage("")
+      .setSSHOptions(new SSHTermOptions()
+        .setPort(5000)
+        .setHost("localhost")
+        .setEventLoopGroup(eventLoopGroup)
+        .setKeyPairOptions(new JksOptions().setPath("src/test/resources/server-keystore.jks").setPassword("wibble"))
+        .setAuthOptions(new JsonObject()
+          .put("provider", "properties")
+          .put("config", new JsonObject().put("file", "test-auth.properties")))));
+    service.start().await(20, TimeUnit.SECONDS);
+    JSch jsch = new JSch();
+    sessions = new ArrayList<>();
+    for (int i = 0;i < clients;i++) {
+      Session session = jsch.getSession("paulo", "localhost", 5000);
+      session.setPassword("secret");
+      session.setConfig("StrictHostKeyChecking", "no");
+      session.connect();
+      sessions.add(session);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    sessions.forEach(Session::disconnect);
+    service.stop().await(20, TimeUnit.SECONDS);
+    vertx.close().await(20, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public int exec() throws Exception {
+    List<ChannelExec> channels = new ArrayList<>(sessions.size());
+    List<InputStream> outputs = new ArrayList<>(sessions.size());
+    for (Session session : sessions) {
+      ChannelExec channel = (ChannelExec) session.openChannel("exec");
+      channel.setCommand("work");
+      outputs.add(channel.getInputStream());
+      channel.connect();
+      channels.add(channel);
+    }
+    int read = 0;
+    for (int i = 0;i < channels.size();i++) {
+      InputStream in = outputs.get(i);
+      while (in.read() != -1) {
+        read++;
+      }
+      channels.get(i).disconnect();
+    }
+    return read;
+  }
+}
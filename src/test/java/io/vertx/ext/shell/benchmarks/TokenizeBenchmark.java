@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.benchmarks;
+
+import io.vertx.ext.shell.cli.CliToken;
+import io.vertx.ext.shell.cli.impl.CliTokenImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the tokenization of a {@code bus-send} command line with a JSON body of {@code size} entries.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenizeBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  private String line;
+
+  @Setup
+  public void setup() {
+    StringBuilder body = new StringBuilder("'{");
+    for (int i = 0;i < size;i++) {
+      if (i > 0) {
+        body.append(',');
+      }
+      body.append("\"key").append(i).append("\":\"value 😀 ").append(i).append('"');
+    }
+    body.append("}'");
+    line = "bus-send --type JSON --timeout 1000 the_address " + body;
+  }
+
+  @Benchmark
+  public List<CliToken> tokenize() {
+    return CliToken.tokenize(line);
+  }
+
+  @Benchmark
+  public int tokenizeAndRead() {
+    List<CliToken> tokens = CliToken.tokenize(line);
+    int count = 0;
+    for (CliToken token : tokens) {
+      count += token.value().length();
+    }
+    return count + CliTokenImpl.rawLine(tokens).length();
+  }
+}
@@ -32,6 +32,7 @@
 
 package io.vertx.ext.shell.cli;
 
+import io.vertx.ext.shell.cli.impl.CliTokenImpl;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -90,6 +91,29 @@ public class CliTokenTest {
 //    assertTokens("'", CliToken.Kind.TEXT.create("\\"));
   }
 
+  @Test
+  public void testSurrogatePairs() {
+    String emoji = new String(Character.toChars(0x1F600));
+    assertTokens(emoji, CliToken.createText(emoji));
+    assertTokens(emoji + " " + emoji, CliToken.createText(emoji), CliToken.createBlank(" "), CliToken.createText(emoji));
+    assertTokens("\"" + emoji + " \"", CliToken.createText(emoji + " "));
+    assertTokens("\\" + emoji, CliToken.createText(emoji));
+  }
+
+  @Test
+  public void testRawValues() {
+    String line = "echo \"a b\"\t'c'";
+    List<CliToken> tokens = CliToken.tokenize(line);
+    assertEquals(5, tokens.size());
+    assertEquals("\"a b\"", tokens.get(2).raw());
+    assertEquals("a b", tokens.get(2).value());
+    assertEquals("\t", tokens.get(3).raw());
+    assertEquals("'c'", tokens.get(4).raw());
+    assertEquals("c", tokens.get(4).value());
+    assertSame(line, CliTokenImpl.rawLine(tokens));
+    assertEquals("\"a b\"\t'c'", CliTokenImpl.rawLine(tokens.subList(2, 5)));
+  }
+
   private void assertTokens(String s, CliToken... expected) {
     List<CliToken> tokens = CliToken.tokenize(s);
     assertEquals(Arrays.asList(expected), tokens);
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.cli;
+
+import io.termd.core.util.Helper;
+import io.vertx.ext.shell.cli.impl.LineTokenizer;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class LineTokenizerTest {
+
+  @Test
+  public void testAppend() {
+    LineTokenizer tokenizer = new LineTokenizer();
+    List<CliToken> first = assertTokenize(tokenizer, "echo he");
+    List<CliToken> second = assertTokenize(tokenizer, "echo hello");
+    assertSame(first.get(0), second.get(0));
+    assertSame(first.get(1), second.get(1));
+    assertNotSame(first.get(2), second.get(2));
+  }
+
+  @Test
+  public void testSameLine() {
+    LineTokenizer tokenizer = new LineTokenizer();
+    int[] line = Helper.toCodePoints("echo hello");
+    List<CliToken> tokens = tokenizer.tokenize(line);
+    assertSame(tokens, tokenizer.tokenize(line.clone()));
+  }
+
+  @Test
+  public void testEdit() {
+    LineTokenizer tokenizer = new LineTokenizer();
+    assertTokenize(tokenizer, "echo \"a b");
+    assertTokenize(tokenizer, "echo \"a b\" c");
+    assertTokenize(tokenizer, "echo \"a c\" c");
+    assertTokenize(tokenizer, "echo");
+    assertTokenize(tokenizer, "echo ");
+    assertTokenize(tokenizer, "");
+    assertTokenize(tokenizer, "bus-send 😀 ");
+  }
+
+  private List<CliToken> assertTokenize(LineTokenizer tokenizer, String line) {
+    List<CliToken> tokens = tokenizer.tokenize(Helper.toCodePoints(line));
+    assertEquals(line, tokenizer.line());
+    assertEquals(CliToken.tokenize(line), tokens);
+    for (int i = 0;i < tokens.size();i++) {
+      assertEquals(CliToken.tokenize(line).get(i).raw(), tokens.get(i).raw());
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.command;
+
+import io.vertx.core.cli.CLI;
+import io.vertx.core.cli.CommandLine;
+import io.vertx.core.cli.annotations.Argument;
+import io.vertx.core.cli.annotations.CLIConfigurator;
+import io.vertx.core.cli.annotations.Name;
+import io.vertx.core.cli.annotations.Option;
+import io.vertx.ext.shell.command.impl.AnnotatedCommandBinding;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class AnnotatedCommandBindingTest {
+
+  @Name("bound")
+  public static class BoundCommand extends AnnotatedCommand {
+
+    String address;
+    List<String> headers;
+    boolean verbose;
+    long timeout = -1;
+
+    @Argument(index = 0, argName = "address")
+    public void setAddress(String address) {
+      this.address = address;
+    }
+
+    @Option(longName = "header", acceptMultipleValues = true)
+    public void setHeaders(List<String> headers) {
+      this.headers = headers;
+    }
+
+    @Option(longName = "verbose", flag = true)
+    public void setVerbose(boolean verbose) {
+      this.verbose = verbose;
+    }
+
+    @Option(longName = "timeout")
+    public void setTimeout(long timeout) {
+      this.timeout = timeout;
+    }
+
+    @Override
+    public void process(CommandProcess process) {
+      process.end();
+    }
+  }
+
+  @Name("short")
+  public static class ShortNameCommand extends AnnotatedCommand {
+
+    boolean ell;
+
+    @Option(shortName = "l", flag = true)
+    public void setEll(boolean ell) {
+      this.ell = ell;
+    }
+
+    @Override
+    public void process(CommandProcess process) {
+      process.end();
+    }
+  }
+
+  @Test
+  public void testInject() throws Exception {
+    AnnotatedCommandBinding binding = AnnotatedCommandBinding.get(BoundCommand.class);
+    assertTrue(binding.isDirect());
+    assertSame(binding, AnnotatedCommandBinding.get(BoundCommand.class));
+    CLI cli = CLIConfigurator.define(BoundCommand.class);
+    CommandLine commandLine = cli.parse(Arrays.asList("the_address", "--header", "a", "--header", "b", "--verbose", "--timeout", "500"));
+    BoundCommand command = (BoundCommand) binding.newInstance();
+    binding.inject(commandLine, command);
+    assertEquals("the_address", command.address);
+    assertEquals(Arrays.asList("a", "b"), command.headers);
+    assertTrue(command.verbose);
+    assertEquals(500L, command.timeout);
+  }
+
+  @Test
+  public void testInjectMatchesReflection() throws Exception {
+    AnnotatedCommandBinding binding = AnnotatedCommandBinding.get(BoundCommand.class);
+    CLI cli = CLIConfigurator.define(BoundCommand.class);
+    CommandLine commandLine = cli.parse(Arrays.asList("the_address"));
+    BoundCommand direct = (BoundCommand) binding.newInstance();
+    binding.inject(commandLine, direct);
+    BoundCommand reflective = new BoundCommand();
+    CLIConfigurator.inject(commandLine, reflective);
+    assertEquals(reflective.address, direct.address);
+    assertEquals(reflective.headers, direct.headers);
+    assertEquals(reflective.verbose, direct.verbose);
+    assertEquals(reflective.timeout, direct.timeout);
+  }
+
+  @Test
+  public void testInjectShortName() throws Exception {
+    AnnotatedCommandBinding binding = AnnotatedCommandBinding.get(ShortNameCommand.class);
+    CLI cli = CLIConfigurator.define(ShortNameCommand.class);
+    CommandLine commandLine = cli.parse(Arrays.asList("-l"));
+    ShortNameCommand command = (ShortNameCommand) binding.newInstance();
+    binding.inject(commandLine, command);
+    assertTrue(command.ell);
+  }
+}
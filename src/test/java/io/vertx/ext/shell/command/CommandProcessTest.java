@@ -35,6 +35,14 @@ package io.vertx.ext.shell.command;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.cli.CommandLine;
+import io.vertx.core.cli.annotations.Argument;
+import io.vertx.core.cli.annotations.Name;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.ext.shell.cli.CliToken;
+import io.vertx.ext.shell.command.impl.AnnotatedCommandImpl;
+import io.vertx.ext.shell.command.impl.OutputBuffer;
 import io.vertx.ext.shell.session.Session;
 import io.vertx.ext.shell.system.*;
 import io.vertx.ext.shell.system.Process;
@@ -47,7 +55,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -70,6 +83,69 @@ public class CommandProcessTest {
       .onComplete(context.asyncAssertSuccess());
   }
 
+  @Name("pure")
+  @Pure(cacheSize = 1)
+  public static class PureCommand extends AnnotatedCommand {
+
+    static final List<CommandLine> commandLines = Collections.synchronizedList(new ArrayList<>());
+
+    @Argument(index = 0, argName = "value")
+    public void setValue(String value) {
+    }
+
+    @Override
+    public void process(CommandProcess process) {
+      commandLines.add(process.commandLine());
+      process.end();
+    }
+  }
+
+  @Test
+  public void testPureCommandLineCache(TestContext context) {
+    PureCommand.commandLines.clear();
+    Command command = Command.create(vertx, PureCommand.class);
+    for (String line : Arrays.asList("foo", "foo", "bar")) {
+      Async terminated = context.async();
+      Process process = command.createProcess(CliToken.tokenize(line)).setSession(Session.create()).setTty(Pty.create().slave());
+      process.terminatedHandler(code -> terminated.complete());
+      process.run();
+      terminated.awaitSuccess(5000);
+    }
+    context.assertEquals(3, PureCommand.commandLines.size());
+    context.assertSame(PureCommand.commandLines.get(0), PureCommand.commandLines.get(1));
+    context.assertNotSame(PureCommand.commandLines.get(1), PureCommand.commandLines.get(2));
+    context.assertEquals("bar", PureCommand.commandLines.get(2).getArgumentValue(0));
+  }
+
+  @Name("context")
+  public static class ContextCommand extends AnnotatedCommand {
+
+    static final List<Context> contexts = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void process(CommandProcess process) {
+      contexts.add(Vertx.currentContext());
+      process.end();
+    }
+  }
+
+  @Test
+  public void testSharedCommandRunsOnCallerContext(TestContext context) throws Exception {
+    ContextCommand.contexts.clear();
+    Command command = new AnnotatedCommandImpl(vertx, null, ContextCommand.class);
+    List<Context> expected = new ArrayList<>();
+    for (int i = 0;i < 2;i++) {
+      Context ctx = ((VertxInternal) vertx).createEventLoopContext();
+      expected.add(ctx);
+      Process process = createProcessInContext(ctx, command);
+      Async terminated = context.async();
+      process.terminatedHandler(code -> terminated.complete());
+      process.run();
+      terminated.awaitSuccess(5000);
+    }
+    context.assertEquals(expected, ContextCommand.contexts);
+  }
+
   private Process createProcessInContext(Context context, Command command) throws Exception {
     CompletableFuture<Process> fut = new CompletableFuture<>();
     context.runOnContext(v -> {
@@ -518,6 +594,141 @@ public class CommandProcessTest {
     process.suspend();
   }
 
+  @Test
+  public void testCoalesceWrites(TestContext context) {
+    List<String> writes = Collections.synchronizedList(new ArrayList<>());
+    Async terminatedLatch = context.async();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      Command command = CommandBuilder.command("hello").processHandler(process -> {
+        process.write("foo").write("bar").write("juu");
+        process.end();
+      }).build(vertx);
+      Pty pty = Pty.create();
+      pty.stdoutHandler(writes::add);
+      Process process = command.createProcess().setSession(Session.create()).setTty(pty.slave());
+      process.terminatedHandler(exitCode -> {
+        context.assertEquals(Collections.singletonList("foobarjuu"), writes);
+        terminatedLatch.complete();
+      });
+      process.run();
+    });
+  }
+
+  @Test
+  public void testFlushWrites(TestContext context) {
+    List<String> writes = Collections.synchronizedList(new ArrayList<>());
+    Async terminatedLatch = context.async();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      Command command = CommandBuilder.command("hello").processHandler(process -> {
+        process.write("foo").flush();
+        process.write("bar").write("juu");
+        process.end();
+      }).build(vertx);
+      Pty pty = Pty.create();
+      pty.stdoutHandler(writes::add);
+      Process process = command.createProcess().setSession(Session.create()).setTty(pty.slave());
+      process.terminatedHandler(exitCode -> {
+        context.assertEquals(Arrays.asList("foo", "barjuu"), writes);
+        terminatedLatch.complete();
+      });
+      process.run();
+    });
+  }
+
+  @Test
+  public void testFlushOverThresholdOffProcessContext(TestContext context) throws Exception {
+    List<String> writes = Collections.synchronizedList(new ArrayList<>());
+    List<Context> writeContexts = Collections.synchronizedList(new ArrayList<>());
+    Async terminatedLatch = context.async();
+    char[] chars = new char[OutputBuffer.DEFAULT_MAX_SIZE];
+    Arrays.fill(chars, 'x');
+    String data = new String(chars);
+    Context commandCtx = ((VertxInternal) vertx).createEventLoopContext();
+    Context processCtx = ((VertxInternal) vertx).createEventLoopContext();
+    CompletableFuture<Command> fut = new CompletableFuture<>();
+    commandCtx.runOnContext(v -> fut.complete(CommandBuilder.command("hello").processHandler(process -> {
+      // The handler runs on the command context, the tty is written from the process context
+      process.write(data);
+      context.assertTrue(writes.isEmpty());
+      process.end();
+    }).build(vertx)));
+    Command command = fut.get(2000, TimeUnit.MILLISECONDS);
+    Pty pty = Pty.create();
+    pty.stdoutHandler(s -> {
+      writeContexts.add(Vertx.currentContext());
+      writes.add(s);
+    });
+    Process process = createProcessInContext(processCtx, command).setTty(pty.slave());
+    process.terminatedHandler(exitCode -> {
+      context.assertEquals(Collections.singletonList(data), writes);
+      context.assertEquals(Collections.singletonList(processCtx), writeContexts);
+      terminatedLatch.complete();
+    });
+    process.run();
+  }
+
+  @Test
+  public void testWriteQueueFullUntilFlushed(TestContext context) throws Exception {
+    List<String> writes = Collections.synchronizedList(new ArrayList<>());
+    Async drained = context.async();
+    Async terminatedLatch = context.async();
+    char[] chars = new char[OutputBuffer.DEFAULT_MAX_SIZE];
+    Arrays.fill(chars, 'x');
+    String data = new String(chars);
+    CountDownLatch checked = new CountDownLatch(1);
+    Context commandCtx = ((VertxInternal) vertx).createEventLoopContext();
+    Context processCtx = ((VertxInternal) vertx).createEventLoopContext();
+    CompletableFuture<Command> fut = new CompletableFuture<>();
+    commandCtx.runOnContext(v -> fut.complete(CommandBuilder.command("hello").processHandler(process -> {
+      process.write(data);
+      context.assertTrue(process.writeQueueFull());
+      process.drainHandler(v2 -> {
+        context.assertFalse(process.writeQueueFull());
+        context.assertEquals(Collections.singletonList(data), writes);
+        drained.complete();
+        process.end();
+      });
+      checked.countDown();
+    }).build(vertx)));
+    Command command = fut.get(2000, TimeUnit.MILLISECONDS);
+    Pty pty = Pty.create();
+    pty.stdoutHandler(writes::add);
+    Process process = createProcessInContext(processCtx, command).setTty(pty.slave());
+    process.terminatedHandler(exitCode -> terminatedLatch.complete());
+    // Hold the flush on the process context until the producer saw a full queue
+    processCtx.runOnContext(v -> {
+      try {
+        checked.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        context.fail(e);
+      }
+    });
+    process.run();
+  }
+
+  @Test
+  public void testWriteBufferInOrder(TestContext context) {
+    List<String> writes = Collections.synchronizedList(new ArrayList<>());
+    Async terminatedLatch = context.async();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      Command command = CommandBuilder.command("hello").processHandler(process -> {
+        process.write("foo").write(Buffer.buffer("bar")).write("juu").write("daa");
+        process.end();
+      }).build(vertx);
+      Pty pty = Pty.create();
+      pty.stdoutHandler(writes::add);
+      Process process = command.createProcess().setSession(Session.create()).setTty(pty.slave());
+      process.terminatedHandler(exitCode -> {
+        context.assertEquals(Arrays.asList("foo", "bar", "juudaa"), writes);
+        terminatedLatch.complete();
+      });
+      process.run();
+    });
+  }
+
 /*
   @Test
   public void testTerminatedDoesNotExecute(TestContext context) throws InterruptedException {
@@ -36,6 +36,7 @@ import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.ext.shell.command.impl.CommandRegistryImpl;
+import io.vertx.ext.shell.system.impl.InternalCommandManager;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -44,10 +45,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -146,4 +150,51 @@ public class CommandRegistryTest {
     async3.awaitSuccess(2000);
     context.assertFalse(vertx.deploymentIDs().contains(deploymentId));
   }
+
+  @Test
+  public void testCommandManagerIndex(TestContext context) {
+    InternalCommandManager mgr = new InternalCommandManager(registry);
+    context.assertNull(mgr.getCommand("hello"));
+    registry.registerCommand(CommandBuilder.command("hello").build(vertx))
+      .onComplete(context.asyncAssertSuccess(cmd -> {
+        context.assertSame(cmd, mgr.getCommand("hello"));
+        context.assertEquals(1, mgr.commands().size());
+        registry.unregisterCommand("hello")
+          .onComplete(context.asyncAssertSuccess(v -> {
+            context.assertNull(mgr.getCommand("hello"));
+            context.assertEquals(0, mgr.commands().size());
+          }));
+      }));
+  }
+
+  @Test
+  public void testCommandManagerPrecedence(TestContext context) {
+    Command first = CommandBuilder.command("hello").build(vertx);
+    Command second = CommandBuilder.command("hello").build(vertx);
+    InternalCommandManager mgr = new InternalCommandManager(() -> Collections.singletonList(first), () -> Collections.singletonList(second));
+    context.assertSame(first, mgr.getCommand("hello"));
+    context.assertEquals(1, mgr.commands().size());
+  }
+
+  @Test
+  public void testCommandManagerMissIsFinal(TestContext context) {
+    List<Command> list = new CopyOnWriteArrayList<>();
+    CommandResolver resolver = new CommandResolver() {
+      @Override
+      public List<Command> commands() {
+        return new ArrayList<>(list);
+      }
+      @Override
+      public Command getCommand(String name) {
+        throw new AssertionError("Unexpected lookup");
+      }
+    };
+    InternalCommandManager mgr = new InternalCommandManager(resolver);
+    context.assertNull(mgr.getCommand("hello"));
+    Command hello = CommandBuilder.command("hello").build(vertx);
+    list.add(hello);
+    context.assertSame(hello, mgr.getCommand("hello"));
+    list.remove(hello);
+    context.assertNull(mgr.getCommand("hello"));
+  }
 }
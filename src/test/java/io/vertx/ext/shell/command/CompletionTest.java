@@ -36,6 +36,7 @@ import io.vertx.core.Vertx;
 import io.vertx.ext.shell.cli.CliToken;
 import io.vertx.ext.shell.cli.Completion;
 import io.vertx.ext.shell.session.Session;
+import io.vertx.ext.shell.system.impl.CommandNameTrie;
 import io.vertx.ext.shell.system.impl.InternalCommandManager;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -179,6 +180,39 @@ public class CompletionTest {
     });
   }
 
+  @Test
+  public void testCommandsAfterRegistryUpdate(TestContext context) {
+    Async async = context.async();
+    registry.registerCommand(CommandBuilder.command("bax").processHandler(proc -> {
+    }).build(rule.vertx())).onComplete(context.asyncAssertSuccess(v1 -> registry.unregisterCommand("baz")
+      .onComplete(context.asyncAssertSuccess(v2 -> mgr.complete(new TestCompletion(context, "ba") {
+        @Override
+        public void complete(List<String> candidates) {
+          context.assertEquals(Arrays.asList("bar", "bax"), candidates.stream().sorted().collect(Collectors.toList()));
+          async.complete();
+        }
+      })))));
+  }
+
+  @Test
+  public void testNameTrie(TestContext context) {
+    CommandNameTrie trie = new CommandNameTrie();
+    trie.add("verticle-ls");
+    trie.add("verticle-deploy");
+    trie.add("verticle-undeploy");
+    trie.add("echo");
+    context.assertEquals("verticle-", trie.commonPrefix("v"));
+    context.assertEquals(Arrays.asList("verticle-deploy", "verticle-ls", "verticle-undeploy"), trie.candidates("ve"));
+    context.assertTrue(trie.remove("verticle-ls"));
+    context.assertFalse(trie.remove("verticle-ls"));
+    context.assertEquals(Arrays.asList("verticle-deploy", "verticle-undeploy"), trie.candidates("v"));
+    trie.retain(Collections.singleton("verticle-deploy"));
+    context.assertEquals("verticle-deploy", trie.commonPrefix("v"));
+    context.assertEquals(1, trie.size());
+    context.assertNull(trie.commonPrefix("e"));
+    context.assertEquals(Collections.emptyList(), trie.candidates("e"));
+  }
+
   @Test
   public void testFailure(TestContext context) {
     Async async = context.async();
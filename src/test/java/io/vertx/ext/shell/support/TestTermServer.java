@@ -52,7 +52,12 @@ public class TestTermServer implements TermServer {
   }
 
   public TestTtyConnection openConnection() {
+    return openConnection(null);
+  }
+
+  public TestTtyConnection openConnection(String user) {
     TestTtyConnection conn = new TestTtyConnection(vertx);
+    conn.setUser(user);
     connectionHandler.handle(conn);
     return conn;
   }
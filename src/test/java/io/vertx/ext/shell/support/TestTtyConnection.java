@@ -32,12 +32,14 @@
 
 package io.vertx.ext.shell.support;
 
-import io.termd.core.tty.TtyConnection;
 import io.termd.core.tty.TtyEvent;
 import io.termd.core.util.Helper;
 import io.termd.core.util.Vector;
 import io.vertx.core.Context;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.term.impl.VertxTtyConnection;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -49,7 +51,7 @@ import java.util.function.Consumer;
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
-public class TestTtyConnection implements TtyConnection {
+public class TestTtyConnection implements VertxTtyConnection {
 
   private final Context context;
   private Consumer<String> terminalTypeHandler;
@@ -61,6 +63,9 @@ public class TestTtyConnection implements TtyConnection {
   private volatile boolean closed;
   private final CountDownLatch closeLatch = new CountDownLatch(1);
   private volatile long lastAccessedTime;
+  private volatile String user;
+  private volatile boolean writeQueueFull;
+  private volatile Handler<Void> drainHandler;
 
   public TestTtyConnection(Vertx vertx) {
     this.context = vertx.getOrCreateContext();
@@ -81,6 +86,15 @@ public class TestTtyConnection implements TtyConnection {
     return lastAccessedTime;
   }
 
+  @Override
+  public String user() {
+    return user;
+  }
+
+  public void setUser(String user) {
+    this.user = user;
+  }
+
   @Override
   public String terminalType() {
     return "xterm";
@@ -142,6 +156,35 @@ public class TestTtyConnection implements TtyConnection {
     };
   }
 
+  @Override
+  public synchronized void writeText(String text) {
+    out.append(text);
+    notify();
+  }
+
+  @Override
+  public void write(Buffer data) {
+    writeText(data.toString(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return writeQueueFull;
+  }
+
+  @Override
+  public void drainHandler(Handler<Void> handler) {
+    drainHandler = handler;
+  }
+
+  public void setWriteQueueFull(boolean full) {
+    writeQueueFull = full;
+    Handler<Void> handler = drainHandler;
+    if (!full && handler != null) {
+      context.runOnContext(handler);
+    }
+  }
+
   @Override
   public Consumer<Void> getCloseHandler() {
     return closeHandler;
@@ -170,7 +213,7 @@ public class TestTtyConnection implements TtyConnection {
 
   @Override
   public void schedule(Runnable task, long delay, TimeUnit unit) {
-    throw new UnsupportedOperationException();
+    context.owner().setTimer(unit.toMillis(delay), id -> context.runOnContext(v -> task.run()));
   }
 
   public void sendEvent(TtyEvent event) {
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.system;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.command.Command;
+import io.vertx.ext.shell.command.CommandBuilder;
+import io.vertx.ext.shell.session.Session;
+import io.vertx.ext.shell.system.impl.JobControllerImpl;
+import io.vertx.ext.shell.system.impl.JobImpl;
+import io.vertx.ext.shell.system.impl.OutputCapture;
+import io.vertx.ext.shell.term.Pty;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class JobControllerTest {
+
+  private static final int THREADS = 8;
+  private static final int JOBS_PER_THREAD = 250;
+
+  Vertx vertx;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void after(TestContext context) {
+    vertx.close()
+      .onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testConcurrentJobs(TestContext context) throws Exception {
+    JobControllerImpl controller = new JobControllerImpl();
+    Command command = CommandBuilder.command("short").processHandler(process -> process.end()).build(vertx);
+    Async terminated = context.async(THREADS * JOBS_PER_THREAD);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    CyclicBarrier barrier = new CyclicBarrier(THREADS);
+    Thread[] threads = new Thread[THREADS];
+    for (int i = 0;i < THREADS;i++) {
+      threads[i] = new Thread(() -> {
+        try {
+          barrier.await();
+          for (int j = 0;j < JOBS_PER_THREAD;j++) {
+            Job job = controller.createJob(command.createProcess(), "short");
+            if (controller.getJob(job.id()) != job) {
+              throw new AssertionError("Job " + job.id() + " not registered");
+            }
+            job.statusUpdateHandler(status -> {
+              if (status == ExecStatus.TERMINATED) {
+                terminated.countDown();
+              }
+            });
+            job.setTty(Pty.create().slave()).setSession(Session.create()).run();
+            // Iterate while other threads add and remove jobs
+            for (Job other : controller.jobs()) {
+              other.id();
+            }
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    context.assertNull(failure.get());
+    terminated.awaitSuccess(20000);
+    context.assertEquals(0, controller.jobs().size());
+    context.assertNull(controller.foregroundJob());
+  }
+
+  @Test
+  public void testCurrentJob(TestContext context) {
+    JobControllerImpl controller = new JobControllerImpl();
+    Command command = CommandBuilder.command("long").processHandler(process -> {}).build(vertx);
+    Job job1 = controller.createJob(command.createProcess(), "long");
+    Job job2 = controller.createJob(command.createProcess(), "long");
+    job1.setTty(Pty.create().slave()).setSession(Session.create()).run();
+    context.assertNull(controller.currentJob());
+    job1.suspend();
+    context.assertTrue(job1.lastStopped() > 0);
+    context.assertEquals(job1, controller.currentJob());
+    context.assertNull(controller.previousJob());
+    job2.setTty(Pty.create().slave()).setSession(Session.create()).run();
+    job2.suspend();
+    context.assertEquals(job2, controller.currentJob());
+    context.assertEquals(job1, controller.previousJob());
+    job1.resume(true);
+    context.assertEquals(job2, controller.currentJob());
+    context.assertNull(controller.previousJob());
+    job1.toBackground();
+    context.assertEquals(job1, controller.currentJob());
+    context.assertEquals(job2, controller.previousJob());
+    Async async = context.async();
+    job1.statusUpdateHandler(status -> {
+      if (status == ExecStatus.TERMINATED) {
+        context.assertEquals(job2, controller.currentJob());
+        context.assertNull(controller.previousJob());
+        async.complete();
+      }
+    });
+    job1.terminate();
+  }
+
+  @Test
+  public void testMetrics(TestContext context) {
+    JobControllerImpl controller = new JobControllerImpl();
+    Command command = CommandBuilder.command("metrics").processHandler(process -> {
+      process.write("hello\nwörld\n");
+      process.stdinHandler(data -> process.end());
+    }).build(vertx);
+    Pty pty = Pty.create();
+    Job job = controller.createJob(command.createProcess(), "metrics");
+    Async async = context.async();
+    job.statusUpdateHandler(status -> {
+      if (status == ExecStatus.TERMINATED) {
+        JobMetrics metrics = job.metrics();
+        context.assertEquals(13L, metrics.bytesWritten());
+        context.assertEquals(2L, metrics.linesWritten());
+        context.assertEquals(4L, metrics.bytesRead());
+        context.assertEquals(1L, metrics.linesRead());
+        context.assertEquals(2L, metrics.handlerDispatches());
+        context.assertTrue(metrics.wallTime() >= 0);
+        async.complete();
+      }
+    });
+    AtomicBoolean written = new AtomicBoolean();
+    pty.stdoutHandler(data -> {
+      if (written.compareAndSet(false, true)) {
+        pty.write("abc\r");
+      }
+    });
+    job.setTty(pty.slave()).setSession(Session.create()).run();
+  }
+
+  @Test
+  public void testOutputCapture(TestContext context) {
+    JobControllerImpl controller = new JobControllerImpl();
+    controller.setOutputCapture(8);
+    Async background = context.async();
+    Command command = CommandBuilder.command("capture").processHandler(process -> {
+      process.backgroundHandler(v -> {
+        process.write("0123456789abcdef\n");
+        background.complete();
+      });
+    }).build(vertx);
+    Pty pty = Pty.create();
+    StringBuilder out = new StringBuilder();
+    pty.stdoutHandler(out::append);
+    JobImpl job = (JobImpl) controller.createJob(command.createProcess(), "capture");
+    job.setTty(pty.slave()).setSession(Session.create()).run();
+    job.toBackground();
+    background.awaitSuccess(20000);
+    OutputCapture capture = job.outputCapture();
+    context.assertTrue(capture.isCapturing());
+    context.assertEquals("9abcdef\n", capture.content());
+    context.assertEquals(9L, capture.discarded());
+    context.assertEquals("", out.toString());
+    job.toForeground();
+    context.assertFalse(capture.isCapturing());
+    context.assertEquals("... 9 chars discarded ...\n9abcdef\n", out.toString().replace("\r\n", "\n"));
+    job.terminate();
+  }
+}
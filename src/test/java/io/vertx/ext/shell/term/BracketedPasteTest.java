@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.support.TestTtyConnection;
+import io.vertx.ext.shell.term.impl.TermImpl;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class BracketedPasteTest {
+
+  Vertx vertx;
+  AtomicInteger writes;
+  List<int[]> chunks;
+  TestTtyConnection conn;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx();
+    writes = new AtomicInteger();
+    chunks = new CopyOnWriteArrayList<>();
+    conn = connection();
+  }
+
+  private TestTtyConnection connection() {
+    return new TestTtyConnection(vertx) {
+      @Override
+      public Consumer<int[]> stdoutHandler() {
+        Consumer<int[]> out = super.stdoutHandler();
+        return codePoints -> {
+          writes.incrementAndGet();
+          chunks.add(codePoints);
+          out.accept(codePoints);
+        };
+      }
+    };
+  }
+
+  @After
+  public void after(TestContext context) {
+    vertx.close()
+      .onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testEnable(TestContext context) {
+    new TermImpl(vertx, conn).setBracketedPaste(true);
+    conn.assertWritten("\033[?2004h");
+  }
+
+  @Test
+  public void testPasteDeliveredAsOneEvent(TestContext context) {
+    List<String> events = new CopyOnWriteArrayList<>();
+    Async async = context.async();
+    TermImpl term = new TermImpl(vertx, conn);
+    term.stdinHandler(data -> {
+      events.add(data);
+      if (data.equals("!")) {
+        context.assertEquals(3, events.size());
+        context.assertEquals("a", events.get(0));
+        context.assertEquals("line1\nline2\n", events.get(1));
+        async.complete();
+      }
+    });
+    conn.read("a\033[200~line1\nline2\n\033[201~");
+    conn.read("!");
+  }
+
+  @Test
+  public void testPasteEndMarkerSplit(TestContext context) {
+    Async async = context.async();
+    TermImpl term = new TermImpl(vertx, conn);
+    term.stdinHandler(data -> {
+      context.assertEquals("pasted", data);
+      async.complete();
+    });
+    conn.read("\033[200~pas");
+    conn.read("ted\033[2");
+    conn.read("01~");
+  }
+
+  @Test
+  public void testBulkEcho(TestContext context) {
+    new TermImpl(vertx, conn);
+    conn.read("\033[200~abc\tdef\033[201~");
+    conn.assertWritten("abc\tdef");
+    context.assertEquals(1, writes.get());
+  }
+
+  @Test
+  public void testStartMarkerSplitAtEveryOffset(TestContext context) {
+    testSplitAtEveryOffset(context, "a\033[200~pasted\033[201~b", 1, 7);
+  }
+
+  @Test
+  public void testEndMarkerSplitAtEveryOffset(TestContext context) {
+    testSplitAtEveryOffset(context, "a\033[200~pasted\033[201~b", 13, 19);
+  }
+
+  private void testSplitAtEveryOffset(TestContext context, String input, int from, int to) {
+    for (int i = from;i <= to;i++) {
+      StringBuilder received = new StringBuilder();
+      Async async = context.async();
+      TestTtyConnection conn = connection();
+      TermImpl term = new TermImpl(vertx, conn);
+      term.stdinHandler(data -> {
+        received.append(data);
+        if (data.endsWith("b")) {
+          context.assertEquals("apastedb", received.toString());
+          async.complete();
+        }
+      });
+      conn.read(input.substring(0, i));
+      conn.read(input.substring(i));
+      async.awaitSuccess(10000);
+    }
+  }
+
+  @Test
+  public void testChunksAreNotReused(TestContext context) {
+    TermImpl term = new TermImpl(vertx, conn);
+    term.echo("ab");
+    term.echo("cd");
+    conn.assertWritten("abcd");
+    context.assertEquals(2, chunks.size());
+    context.assertEquals("ab", new String(chunks.get(0), 0, 2));
+    context.assertEquals("cd", new String(chunks.get(1), 0, 2));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.support.TestTtyConnection;
+import io.vertx.ext.shell.term.impl.TermImpl;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+/**
+ * Check the echo of key strokes does not allocate in steady state.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class EchoAllocationTest {
+
+  private static final int KEY_STROKES = 100_000;
+
+  Vertx vertx;
+  long written;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void after(TestContext context) {
+    vertx.close()
+      .onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testEchoDoesNotAllocate(TestContext context) {
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+    Consumer<int[]> stdout = codePoints -> written += codePoints.length;
+    TermImpl term = new TermImpl(vertx, new TestTtyConnection(vertx) {
+      @Override
+      public Consumer<int[]> stdoutHandler() {
+        return stdout;
+      }
+    });
+    int[] key = {'a'};
+    int[] backspace = {127};
+    int[] control = {'X' - 64};
+    for (int i = 0;i < KEY_STROKES;i++) {
+      term.echo(key);
+      term.echo(backspace);
+      term.echo(control);
+    }
+    long threadId = Thread.currentThread().getId();
+    long before = bean.getThreadAllocatedBytes(threadId);
+    for (int i = 0;i < KEY_STROKES;i++) {
+      term.echo(key);
+      term.echo(backspace);
+      term.echo(control);
+    }
+    long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+    context.assertEquals(0L, allocated / (3L * KEY_STROKES), "Allocated " + allocated + " bytes");
+    context.assertEquals(12L * KEY_STROKES, written);
+  }
+}
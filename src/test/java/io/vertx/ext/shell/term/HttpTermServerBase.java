@@ -34,6 +34,7 @@ package io.vertx.ext.shell.term;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.WebSocketClient;
 import io.vertx.core.http.WebSocketConnectOptions;
 import io.vertx.core.json.JsonObject;
@@ -123,6 +124,45 @@ public abstract class HttpTermServerBase {
       }));
   }
 
+  @Test
+  public void testServerReadBinary(TestContext context) {
+    Async async = context.async();
+    server = createServer(context, new HttpTermOptions().setPort(8080));
+    server.termHandler(term -> {
+      term.stdinHandler(buf -> {
+        context.assertEquals("hello_from_client", buf);
+        async.complete();
+      });
+    });
+    server.listen()
+      .onComplete(context.asyncAssertSuccess(server -> {
+        wsClient.connect(8080, "localhost", basePath + "/shell/websocket?framing=binary")
+          .onComplete(context.asyncAssertSuccess(ws -> {
+            ws.writeBinaryMessage(Buffer.buffer().appendByte((byte) 0).appendString("hello_from_client"));
+          }));
+      }));
+  }
+
+  @Test
+  public void testResizeBinary(TestContext context) {
+    Async async = context.async();
+    server = createServer(context, new HttpTermOptions().setPort(8080));
+    server.termHandler(term -> {
+      term.resizehandler(v -> {
+        context.assertEquals(100, term.width());
+        context.assertEquals(50, term.height());
+        async.complete();
+      });
+    });
+    server.listen()
+      .onComplete(context.asyncAssertSuccess(server -> {
+        wsClient.connect(8080, "localhost", basePath + "/shell/websocket?framing=binary")
+          .onComplete(context.asyncAssertSuccess(ws -> {
+            ws.writeBinaryMessage(Buffer.buffer().appendByte((byte) 1).appendUnsignedShort(100).appendUnsignedShort(50));
+          }));
+      }));
+  }
+
   @Test
   public void testInitialSize(TestContext context) {
     testSize(context, basePath + "/shell/websocket?cols=100&rows=50", 100, 50);
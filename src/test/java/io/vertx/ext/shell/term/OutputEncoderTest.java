@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+
+package io.vertx.ext.shell.term;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.shell.term.impl.OutputEncoder;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutputEncoderTest {
+
+  @Test
+  public void testEncodeUtf8() {
+    assertEncode("", "", StandardCharsets.UTF_8);
+    assertEncode("abc", "abc", StandardCharsets.UTF_8);
+    assertEncode("a\r\nb\r\n", "a\nb\n", StandardCharsets.UTF_8);
+    assertEncode("été", "été", StandardCharsets.UTF_8);
+    assertEncode("€\r\n", "€\n", StandardCharsets.UTF_8);
+    assertEncode("😀", "😀", StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testEncodeOtherCharset() {
+    assertEncode("a\r\nb", "a\nb", StandardCharsets.ISO_8859_1);
+    assertEncode("?", "€", StandardCharsets.US_ASCII);
+  }
+
+  @Test
+  public void testEncodeLarge() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0;i < 10000;i++) {
+      sb.append("é");
+    }
+    String s = sb.toString();
+    assertEncode(s, s, StandardCharsets.UTF_8);
+    assertEncode(s, s, StandardCharsets.ISO_8859_1);
+  }
+
+  @Test
+  public void testEscapeIac() {
+    OutputEncoder encoder = new OutputEncoder(true);
+    Buffer encoded = encoder.encode("ÿ", StandardCharsets.ISO_8859_1);
+    assertEquals(Buffer.buffer(new byte[]{(byte) 0xFF, (byte) 0xFF}), encoded);
+    Buffer translated = encoder.translate(Buffer.buffer(new byte[]{'a', (byte) 0xFF, '\n'}));
+    assertEquals(Buffer.buffer(new byte[]{'a', (byte) 0xFF, (byte) 0xFF, '\r', '\n'}), translated);
+  }
+
+  @Test
+  public void testTranslate() {
+    OutputEncoder encoder = new OutputEncoder(false);
+    Buffer data = Buffer.buffer("abc");
+    assertSame(data, encoder.translate(data));
+    assertEquals(Buffer.buffer("a\r\nb\r\n"), encoder.translate(Buffer.buffer("a\nb\n")));
+  }
+
+  private static void assertEncode(String expected, String s, Charset charset) {
+    OutputEncoder encoder = new OutputEncoder(false);
+    assertEquals(Buffer.buffer(expected.getBytes(charset)), encoder.encode(s, charset));
+    // Reuse
+    assertEquals(Buffer.buffer(expected.getBytes(charset)), encoder.encode(s, charset));
+  }
+}
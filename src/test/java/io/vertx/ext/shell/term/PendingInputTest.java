@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.support.TestTtyConnection;
+import io.vertx.ext.shell.term.impl.TermImpl;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class PendingInputTest {
+
+  Vertx vertx;
+  TestTtyConnection conn;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx();
+    conn = new TestTtyConnection(vertx);
+  }
+
+  @After
+  public void after(TestContext context) {
+    vertx.close()
+      .onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testDrainPendingInBatch(TestContext context) {
+    TermImpl term = new TermImpl(vertx, conn);
+    conn.read("abc");
+    conn.read("def");
+    conn.assertWritten("abcdef");
+    List<String> events = new CopyOnWriteArrayList<>();
+    Async async = context.async();
+    term.stdinHandler(data -> {
+      events.add(data);
+      if (data.equals("ghi")) {
+        context.assertEquals(Arrays.asList("abcdef", "ghi"), events);
+        async.complete();
+      }
+    });
+    conn.read("ghi");
+  }
+
+  @Test
+  public void testHandlerSwappedDuringDrain(TestContext context) {
+    TermImpl term = new TermImpl(vertx, conn);
+    conn.read("abc");
+    conn.assertWritten("abc");
+    List<String> events = new CopyOnWriteArrayList<>();
+    Async async = context.async();
+    vertx.runOnContext(v -> {
+      term.stdinHandler(data -> {
+        context.fail("Should not be called");
+      });
+      term.stdinHandler(data -> {
+        events.add(data);
+        if (data.equals("def")) {
+          context.assertEquals(Arrays.asList("abc", "def"), events);
+          async.complete();
+        }
+      });
+      conn.read("def");
+    });
+  }
+}
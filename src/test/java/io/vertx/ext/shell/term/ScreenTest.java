@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ *
+ *
+ * Copyright (c) 2015 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.vertx.ext.shell.term;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.shell.support.TestTtyConnection;
+import io.vertx.ext.shell.term.impl.ScreenImpl;
+import io.vertx.ext.shell.term.impl.TermImpl;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class ScreenTest {
+
+  Vertx vertx;
+  Context context;
+  List<String> frames;
+  ScreenImpl screen;
+
+  @Before
+  public void before() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    frames = new CopyOnWriteArrayList<>();
+    screen = new ScreenImpl(vertx, context, new TermImpl(vertx, new TestTtyConnection(vertx)), frames::add);
+  }
+
+  @After
+  public void after(TestContext context) {
+    vertx.close()
+      .onComplete(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testSize(TestContext context) {
+    context.assertEquals(40, screen.width());
+    context.assertEquals(20, screen.height());
+  }
+
+  @Test
+  public void testRenderDiff(TestContext testContext) {
+    Async done = testContext.async();
+    context.runOnContext(v -> {
+      screen.write(0, 0, "hello").write(0, 1, "world", Screen.BOLD).render();
+      testContext.assertEquals(1, frames.size());
+      testContext.assertEquals("\033[0m\033[2J\033[1;1Hhello\033[2;1H\033[0;1mworld\033[0m", frames.get(0));
+      screen.write(0, 0, "jello!").render();
+      vertx.setTimer(200, id -> {
+        testContext.assertEquals(2, frames.size());
+        // Rewrites the unchanged cells rather than moving the cursor
+        testContext.assertEquals("\033[1;1H\033[0mjello!", frames.get(1));
+        done.complete();
+      });
+    });
+  }
+
+  @Test
+  public void testFrameRate(TestContext testContext) {
+    Async done = testContext.async();
+    context.runOnContext(v -> {
+      screen.setFrameRate(5);
+      screen.write(0, 0, "a").render();
+      screen.write(0, 0, "b").render();
+      screen.write(0, 0, "c").render();
+      testContext.assertEquals(1, frames.size());
+      vertx.setTimer(500, id -> {
+        testContext.assertEquals(2, frames.size());
+        testContext.assertEquals("\033[1;1H\033[0mc", frames.get(1));
+        done.complete();
+      });
+    });
+  }
+}
@@ -32,8 +32,10 @@
 
 package io.vertx.ext.shell.term;
 
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.internal.VertxInternal;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -57,7 +59,11 @@ import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -117,6 +123,40 @@ public class TelnetTermServerTest {
     writer.flush();
   }
 
+  @Test
+  public void testSharedServerPinsSessions(TestContext context) throws IOException {
+    int instances = 2;
+    Set<Context> listenContexts = ConcurrentHashMap.newKeySet();
+    Set<Context> termContexts = ConcurrentHashMap.newKeySet();
+    Async listening = context.async(instances);
+    Async connected = context.async(2 * instances);
+    for (int i = 0;i < instances;i++) {
+      Context listenContext = ((VertxInternal) vertx).createEventLoopContext();
+      listenContexts.add(listenContext);
+      listenContext.runOnContext(v -> {
+        TermServer server = TermServer.createTelnetTermServer(vertx, new TelnetTermOptions().setPort(4000));
+        server.termHandler(term -> {
+          termContexts.add(Vertx.currentContext());
+          connected.countDown();
+        });
+        server.listen()
+          .onComplete(context.asyncAssertSuccess(v2 -> listening.countDown()));
+      });
+    }
+    listening.awaitSuccess(5000);
+    List<TelnetClient> clients = new ArrayList<>();
+    for (int i = 0;i < 2 * instances;i++) {
+      TelnetClient client = new TelnetClient();
+      client.connect("localhost", 4000);
+      clients.add(client);
+    }
+    connected.awaitSuccess(5000);
+    for (TelnetClient client : clients) {
+      client.disconnect();
+    }
+    context.assertEquals(listenContexts, termContexts);
+  }
+
   @Test
   public void testWrite(TestContext context) throws IOException {
     startTelnet(context, term -> term.write("hello_from_server"));